@@ -0,0 +1,94 @@
+package org.folio.config;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+
+import org.folio.common.OkapiParams;
+import org.folio.util.SingleFlight;
+
+/**
+ * Configuration decorator that shares a single lookup among concurrent requests of the same tenant
+ * and token asking for the same configuration value. The token is part of the key, so a lookup that
+ * depends on the permissions of a user is never shared with another user.
+ */
+public class CoalescingConfiguration implements Configuration {
+
+  private final Configuration delegate;
+  private final SingleFlight<Key, Object> lookups = new SingleFlight<>();
+
+  public CoalescingConfiguration(Configuration delegate) {
+    this.delegate = Objects.requireNonNull(delegate);
+  }
+
+  @Override
+  public Future<String> getString(String code, OkapiParams params) {
+    return coalesce(ValueType.STRING, code, null, params, () -> delegate.getString(code, params));
+  }
+
+  @Override
+  public Future<String> getString(String code, String def, OkapiParams params) {
+    return coalesce(ValueType.STRING, code, def, params, () -> delegate.getString(code, def, params));
+  }
+
+  @Override
+  public Future<Integer> getInt(String code, OkapiParams params) {
+    return coalesce(ValueType.INT, code, null, params, () -> delegate.getInt(code, params));
+  }
+
+  @Override
+  public Future<Integer> getInt(String code, int def, OkapiParams params) {
+    return coalesce(ValueType.INT, code, def, params, () -> delegate.getInt(code, def, params));
+  }
+
+  @Override
+  public Future<Long> getLong(String code, OkapiParams params) {
+    return coalesce(ValueType.LONG, code, null, params, () -> delegate.getLong(code, params));
+  }
+
+  @Override
+  public Future<Long> getLong(String code, long def, OkapiParams params) {
+    return coalesce(ValueType.LONG, code, def, params, () -> delegate.getLong(code, def, params));
+  }
+
+  @Override
+  public Future<Double> getDouble(String code, OkapiParams params) {
+    return coalesce(ValueType.DOUBLE, code, null, params, () -> delegate.getDouble(code, params));
+  }
+
+  @Override
+  public Future<Double> getDouble(String code, double def, OkapiParams params) {
+    return coalesce(ValueType.DOUBLE, code, def, params, () -> delegate.getDouble(code, def, params));
+  }
+
+  @Override
+  public Future<Boolean> getBoolean(String code, OkapiParams params) {
+    return coalesce(ValueType.BOOLEAN, code, null, params, () -> delegate.getBoolean(code, params));
+  }
+
+  @Override
+  public Future<Boolean> getBoolean(String code, boolean def, OkapiParams params) {
+    return coalesce(ValueType.BOOLEAN, code, def, params, () -> delegate.getBoolean(code, def, params));
+  }
+
+  /**
+   * Number of lookups that joined a lookup already in flight.
+   */
+  public long getCoalesced() {
+    return lookups.getCoalesced();
+  }
+
+  @SuppressWarnings("unchecked")
+  private <T> Future<T> coalesce(ValueType type, String code, Object def, OkapiParams params,
+                                 Supplier<Future<T>> lookup) {
+    Key key = new Key(params.getUrl(), params.getTenant(), params.getToken(), type, code, def);
+    return (Future<T>) lookups.execute(key, () -> (Future<Object>) lookup.get());
+  }
+
+  private enum ValueType {
+    STRING, INT, LONG, DOUBLE, BOOLEAN
+  }
+
+  private record Key(String okapiUrl, String tenant, String token, ValueType type, String code, Object def) { }
+}
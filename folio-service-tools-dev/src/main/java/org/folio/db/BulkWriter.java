@@ -0,0 +1,196 @@
+package org.folio.db;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.pgclient.PgConnection;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import org.apache.commons.lang3.Validate;
+
+import org.folio.db.exc.BulkWriteException;
+import org.folio.db.exc.DatabaseException;
+import org.folio.db.exc.translation.DBExceptionTranslator;
+import org.folio.db.exc.translation.DBExceptionTranslatorFactory;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.util.FutureUtils;
+
+/**
+ * Writes many rows with a few round trips. Rows are sent in chunks, and all chunks of a call are written
+ * in a single transaction, so a call either writes all rows or none.
+ *
+ * <p>Each chunk is written after a savepoint. If a chunk fails, the transaction is rolled back to the
+ * savepoint and the rows of the chunk are written again one by one to find the failing row, the chunks
+ * written before are kept as they are. The call then fails with {@link BulkWriteException} holding the index
+ * of the row and the failure translated by
+ * {@link org.folio.db.exc.translation.postgresql.PostgreSQLExceptionTranslator}. Any other failure, for example
+ * of a deferred constraint at commit, fails the call with a {@link BulkWriteException} without row index.
+ */
+public class BulkWriter {
+
+  public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+  /**
+   * Postgres accepts up to 65535 parameters in a statement, an upserted row takes two of them.
+   */
+  static final int MAX_UPSERT_CHUNK_SIZE = 65535 / 2;
+
+  private static final DBExceptionTranslator TRANSLATOR = DBExceptionTranslatorFactory.instance().create("postgresql");
+  private static final String SAVEPOINT = "SAVEPOINT bulk_write_chunk";
+  private static final String ROLLBACK_TO_SAVEPOINT = "ROLLBACK TO SAVEPOINT bulk_write_chunk";
+
+  private final PostgresClient pg;
+  private final int chunkSize;
+
+  public BulkWriter(PostgresClient pg) {
+    this(pg, DEFAULT_CHUNK_SIZE);
+  }
+
+  public BulkWriter(PostgresClient pg, int chunkSize) {
+    Validate.isTrue(chunkSize > 0, "Chunk size must be positive: %d", chunkSize);
+    this.pg = Objects.requireNonNull(pg);
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Executes the statement once for each tuple of parameters, the tuples of a chunk are sent as a batch.
+   *
+   * @return number of rows affected
+   */
+  public Future<Integer> executeBatch(String sql, List<Tuple> params) {
+    return write(params, chunkSize, (conn, chunk) -> conn.preparedQuery(sql).executeBatch(chunk));
+  }
+
+  /**
+   * Inserts the records into the {@code id} and {@code jsonb} columns of the table, a record that exists
+   * already gets the new jsonb. Each chunk is written with a single multi-row {@code INSERT ... ON CONFLICT}.
+   *
+   * @return number of rows inserted or updated
+   */
+  public <T> Future<Integer> upsert(String table, List<T> records, Function<T, UUID> idMapper) {
+    // the jsonb is bound as text and cast by Postgres, see JsonbCodec.encode
+    String qualifiedTable = qualifiedTable(table);
+
+    return write(records, Math.min(chunkSize, MAX_UPSERT_CHUNK_SIZE), (conn, chunk) -> {
+      Tuple params = Tuple.tuple();
+      StringBuilder sql = new StringBuilder("INSERT INTO ").append(qualifiedTable).append(" (id, jsonb) VALUES ");
+      for (T item : chunk) {
+        if (params.size() > 0) {
+          sql.append(", ");
+        }
+        sql.append("($").append(params.size() + 1).append(", $").append(params.size() + 2).append("::text::jsonb)");
+        params.addValue(idMapper.apply(item)).addValue(JsonbCodec.encode(item));
+      }
+      sql.append(" ON CONFLICT (id) DO UPDATE SET jsonb = EXCLUDED.jsonb");
+
+      return conn.preparedQuery(sql.toString()).execute(params);
+    });
+  }
+
+  /**
+   * Inserts many records into the {@code id} and {@code jsonb} columns of the table. Each chunk is sent
+   * as two array parameters that are expanded with {@code unnest}, so the statement has the same two
+   * parameters whatever the chunk size is. The Vert.x Postgres client doesn't support {@code COPY FROM STDIN},
+   * this is the closest to it that the client can do.
+   *
+   * @return number of rows inserted
+   */
+  public <T> Future<Integer> load(String table, List<T> records, Function<T, UUID> idMapper) {
+    String sql = "INSERT INTO " + qualifiedTable(table) + " (id, jsonb)"
+      + " SELECT r.id, r.jsonb::jsonb FROM unnest($1::uuid[], $2::text[]) AS r(id, jsonb)";
+
+    return write(records, chunkSize, (conn, chunk) -> {
+      UUID[] ids = new UUID[chunk.size()];
+      String[] jsonbs = new String[chunk.size()];
+      for (int i = 0; i < chunk.size(); i++) {
+        ids[i] = idMapper.apply(chunk.get(i));
+        jsonbs[i] = JsonbCodec.encode(chunk.get(i));
+      }
+      return conn.preparedQuery(sql).execute(Tuple.of(ids, jsonbs));
+    });
+  }
+
+  String qualifiedTable(String table) {
+    return PostgresClient.convertToPsqlStandard(pg.getTenantId()) + "." + table;
+  }
+
+  private <R> Future<Integer> write(List<R> rows, int size, ChunkWriter<R> writer) {
+    if (rows.isEmpty()) {
+      return Future.succeededFuture(0);
+    }
+
+    return pg.withTrans(conn -> writeChunks(conn.getPgConnection(), rows, size, writer))
+      .recover(cause -> Future.failedFuture(cause instanceof BulkWriteException
+        ? cause
+        : bulkWriteException(cause, -1)));
+  }
+
+  private <R> Future<Integer> writeChunks(PgConnection conn, List<R> rows, int size, ChunkWriter<R> writer) {
+    return FutureUtils.foldLeft(chunkStarts(rows.size(), size), 0, (written, start) -> {
+      List<R> chunk = rows.subList(start, Math.min(start + size, rows.size()));
+      // the chunk is pipelined behind the savepoint, the savepoint doesn't cost a round trip
+      Future<RowSet<Row>> savepoint = conn.query(SAVEPOINT).execute();
+      Future<RowSet<Row>> result = writer.write(conn, chunk);
+      return Future.all(savepoint, result)
+        .map(v -> written + rowCount(result.result()))
+        .recover(cause -> conn.query(ROLLBACK_TO_SAVEPOINT).execute()
+          .transform(ar -> ar.succeeded()
+            ? locateFailure(conn, chunk, start, writer, cause)
+            : Future.<Integer>failedFuture(bulkWriteException(cause, -1))));
+    });
+  }
+
+  /**
+   * Writes the rows of the failed chunk one by one, after the chunk has been rolled back to its savepoint.
+   * Always fails, the transaction is rolled back anyway.
+   */
+  private <R> Future<Integer> locateFailure(PgConnection conn, List<R> chunk, int chunkStart,
+                                            ChunkWriter<R> writer, Throwable chunkFailure) {
+    return FutureUtils.foldLeft(chunkStarts(chunk.size(), 1), 0, (written, i) ->
+        writer.write(conn, chunk.subList(i, i + 1))
+          .map(result -> written + 1)
+          .recover(cause -> Future.failedFuture(bulkWriteException(cause, chunkStart + i))))
+      .compose(v -> Future.failedFuture(bulkWriteException(chunkFailure, -1)));
+  }
+
+  private static BulkWriteException bulkWriteException(Throwable cause, int rowIndex) {
+    DatabaseException translated = translate(cause);
+    return new BulkWriteException(
+      "Bulk write failed" + (rowIndex == -1 ? "" : " at row " + rowIndex) + ": " + translated.getMessage(),
+      translated, rowIndex);
+  }
+
+  private static DatabaseException translate(Throwable cause) {
+    if (cause instanceof DatabaseException databaseException) {
+      return databaseException;
+    }
+    return TRANSLATOR.acceptable(cause) ? TRANSLATOR.translate(cause) : new DatabaseException(cause);
+  }
+
+  private static List<Integer> chunkStarts(int count, int size) {
+    List<Integer> starts = new ArrayList<>(count / size + 1);
+    for (int start = 0; start < count; start += size) {
+      starts.add(start);
+    }
+    return starts;
+  }
+
+  private static int rowCount(RowSet<Row> result) {
+    int count = 0;
+    for (RowSet<Row> rowSet = result; rowSet != null; rowSet = rowSet.next()) {
+      count += rowSet.rowCount();
+    }
+    return count;
+  }
+
+  @FunctionalInterface
+  private interface ChunkWriter<R> {
+
+    Future<RowSet<Row>> write(PgConnection conn, List<R> chunk);
+  }
+}
@@ -0,0 +1,76 @@
+package org.folio.db;
+
+import java.util.ArrayList;
+
+import io.vertx.core.Future;
+import org.folio.cql2pgjson.exception.CQL2PgJSONException;
+import org.folio.cql2pgjson.model.SqlSelect;
+import org.folio.rest.jaxrs.model.ResultInfo;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.interfaces.Results;
+
+/**
+ * {@link CqlQuery} that keeps the pages it returns in a {@link QueryResultCache}. Meant for small reference
+ * data tables that are read much more often than they change.
+ *
+ * <p>Pages are keyed by the schema qualified table, so by tenant, and by the SQL the CQL query translates to,
+ * so queries that only differ in spacing or in the order of the terms share a page if they translate
+ * to the same SQL. Every caller gets its own copy of the page and of its result info, the records themselves
+ * are shared by all callers and must not be modified.
+ */
+public class CachingCqlQuery<T> extends CqlQuery<T> {
+
+  private final QueryResultCache cache;
+
+  public CachingCqlQuery(PostgresClient pg, String table, Class<T> clazz, QueryResultCache cache) {
+    super(pg, table, clazz);
+    this.cache = cache;
+  }
+
+  /**
+   * Creates a query that reads the pages it doesn't find in the cache as the read routing policy decides.
+   */
+  public CachingCqlQuery(ReadRoutingPolicy readRouting, String table, Class<T> clazz, QueryResultCache cache) {
+    super(readRouting, table, clazz);
+    this.cache = cache;
+  }
+
+  @Override
+  public Future<Results<T>> get(String cqlQuery, int offset, int limit, TotalCountMode totalCountMode) {
+    QueryResultCache.Key key;
+    try {
+      SqlSelect select = DbUtils.toSql(getTable(), cqlQuery);
+      String orderBy = select.getOrderBy();
+      String sql = orderBy == null || orderBy.isEmpty()
+        ? select.getWhere()
+        : select.getWhere() + " ORDER BY " + orderBy;
+      key = new QueryResultCache.Key(qualifiedTable(), getClazz(), sql, offset, limit, totalCountMode);
+    } catch (CQL2PgJSONException e) {
+      return Future.failedFuture(e);
+    }
+
+    Results<T> cached = cache.get(key);
+    if (cached != null) {
+      return Future.succeededFuture(copyOf(cached));
+    }
+
+    long generation = cache.generation();
+    return super.get(cqlQuery, offset, limit, totalCountMode)
+      .onSuccess(results -> cache.put(key, copyOf(results), generation));
+  }
+
+  private static <T> Results<T> copyOf(Results<T> results) {
+    Results<T> copy = new Results<>();
+    copy.setResults(results.getResults() == null ? null : new ArrayList<>(results.getResults()));
+    ResultInfo resultInfo = results.getResultInfo();
+    if (resultInfo != null) {
+      copy.setResultInfo(new ResultInfo()
+        .withTotalRecords(resultInfo.getTotalRecords())
+        .withTotalRecordsEstimated(resultInfo.getTotalRecordsEstimated())
+        .withResponseTime(resultInfo.getResponseTime())
+        .withFacets(resultInfo.getFacets() == null ? null : new ArrayList<>(resultInfo.getFacets()))
+        .withDiagnostics(resultInfo.getDiagnostics() == null ? null : new ArrayList<>(resultInfo.getDiagnostics())));
+    }
+    return copy;
+  }
+}
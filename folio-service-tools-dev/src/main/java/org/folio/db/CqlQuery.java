@@ -3,25 +3,85 @@ package org.folio.db;
 import static org.folio.db.DbUtils.getCQLWrapper;
 
 import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import org.folio.cql2pgjson.exception.CQL2PgJSONException;
 import org.folio.cql2pgjson.exception.FieldException;
+import org.folio.cql2pgjson.model.SqlSelect;
 import org.folio.rest.jaxrs.model.ResultInfo;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.cql.CQLWrapper;
 import org.folio.rest.persist.interfaces.Results;
+import org.folio.util.BoundedCache;
+import org.folio.util.SingleFlight;
 
 public class CqlQuery<T> {
 
+  /**
+   * Size and time to live in seconds of the exact count cache shared by all queries.
+   */
+  static final int COUNT_CACHE_SIZE = Integer.getInteger("folio.cql.count-cache.size", 1000);
+  static final int COUNT_CACHE_TTL = Integer.getInteger("folio.cql.count-cache.ttl", 60);
+
+  /**
+   * Planner estimate of rows below which {@link TotalCountMode#ESTIMATED} counts exactly, as RMB does.
+   */
+  static final int EXACT_COUNT_THRESHOLD = Integer.getInteger("folio.cql.exact-count-threshold", 1000);
+
+  private static final BoundedCache<String, Integer> EXACT_COUNTS =
+    new BoundedCache<>(COUNT_CACHE_SIZE, Duration.ofSeconds(COUNT_CACHE_TTL));
+  private static final SingleFlight<String, Integer> EXACT_COUNTING = new SingleFlight<>();
+
+  private static final Pattern SORT_FIELD = Pattern.compile("\\w+(\\.\\w+)*");
+
   private final PostgresClient pg;
+  private final ReadRoutingPolicy readRouting;
   private final String table;
   private final Class<T> clazz;
 
   public CqlQuery(PostgresClient pg, String table, Class<T> clazz) {
     this.pg = pg;
+    this.readRouting = null;
     this.table = table;
     this.clazz = clazz;
   }
 
+  /**
+   * Creates a query that reads from a replica as the policy decides, see {@link #readYourWrites()}
+   * for reads that must see preceding writes.
+   */
+  public CqlQuery(ReadRoutingPolicy readRouting, String table, Class<T> clazz) {
+    this.pg = readRouting.getPrimary();
+    this.readRouting = readRouting;
+    this.table = table;
+    this.clazz = clazz;
+  }
+
+  /**
+   * Returns a query of the same table that always reads from the primary, for a request that has to see
+   * its own writes. The returned query is a plain {@link CqlQuery} without the features of a subclass.
+   */
+  public CqlQuery<T> readYourWrites() {
+    return new CqlQuery<>(pg, table, clazz);
+  }
+
   public Future<Results<T>> get(String cqlQuery, int offset, int limit) {
+    return get(cqlQuery, offset, limit, TotalCountMode.ESTIMATED);
+  }
+
+  /**
+   * Returns a page of records matching the CQL query with the total records counted as the mode defines.
+   */
+  public Future<Results<T>> get(String cqlQuery, int offset, int limit, TotalCountMode totalCountMode) {
     CQLWrapper cql;
     try {
       cql = getCQLWrapper(table, cqlQuery, limit, offset);
@@ -29,21 +89,342 @@ public class CqlQuery<T> {
       return Future.failedFuture(e);
     }
 
+    return get(cqlQuery, cql, offset, limit, totalCountMode);
+  }
+
+  /**
+   * Reads the page of the CQL query, {@code cql} is its translation with the offset and limit.
+   */
+  Future<Results<T>> get(String cqlQuery, CQLWrapper cql, int offset, int limit, TotalCountMode totalCountMode) {
     if (offset == 0 && limit == Integer.MAX_VALUE) {
       // if all records get loaded we can avoid the additional totalRecords query
       // and take the number from the result set
-      return pg.get(table, clazz, cql, false)
-          .map(results -> {
-            if (results.getResultInfo() == null) {
-              results.setResultInfo(new ResultInfo());
-            }
-            results.getResultInfo()
-                .withTotalRecords(results.getResults().size())
-                .withTotalRecordsEstimated(false);
-            return results;
-          });
-    }
-
-    return pg.get(table, clazz, cql, true);
+      return read(client -> client.get(table, clazz, cql, false))
+          .map(results -> withTotalRecords(results, results.getResults().size(), false));
+    }
+
+    return switch (totalCountMode) {
+      case NONE -> read(client -> client.get(table, clazz, cql, false))
+        .map(results -> withTotalRecords(results, null, false));
+      case ESTIMATED -> read(client -> client.get(table, clazz, cql, true));
+      case EXACT -> getWithExactCount(cqlQuery, cql);
+    };
+  }
+
+  /**
+   * Returns a page of records as a collection response body, see {@link JsonbCollection}. The jsonb of the rows
+   * is copied into the body without decoding it into objects, so the response is assembled without
+   * serializing the records again.
+   *
+   * <p>{@link TotalCountMode#ESTIMATED} counts like RMB's {@code PostgresClient.get} with a count: the records
+   * are counted exactly if the planner estimates fewer than 1000 rows by default, otherwise the estimate is
+   * returned. A page that is not full ends the result, its offset and size are the exact count.
+   */
+  public Future<Buffer> getJsonCollection(String cqlQuery, int offset, int limit, String collectionName,
+                                          TotalCountMode totalCountMode) {
+    if (offset < 0 || limit < 0) {
+      return Future.failedFuture(new IllegalArgumentException(
+        "Offset and limit must not be negative: offset=" + offset + ", limit=" + limit));
+    }
+
+    String qualifiedTable;
+    SqlSelect select;
+    try {
+      qualifiedTable = qualifiedTable();
+      select = toSql(cqlQuery);
+    } catch (CQL2PgJSONException e) {
+      return Future.failedFuture(e);
+    }
+
+    // the page and its count are read from the same server, so they agree
+    return read(client -> getJsonCollection(client, qualifiedTable, select, offset, limit, collectionName,
+      totalCountMode));
+  }
+
+  private Future<Buffer> getJsonCollection(PostgresClient client, String qualifiedTable, SqlSelect select,
+                                           int offset, int limit, String collectionName,
+                                           TotalCountMode totalCountMode) {
+    ParameterizedSql where = ParameterizedSql.of(select.getWhere());
+    String orderBy = select.getOrderBy();
+    String sql = "SELECT " + JsonbCodec.TEXT_COLUMN + " FROM " + qualifiedTable + " WHERE " + where.sql()
+      + (orderBy == null || orderBy.isEmpty() ? "" : " ORDER BY " + orderBy)
+      + " OFFSET " + offset + " LIMIT " + (limit == Integer.MAX_VALUE ? "ALL" : limit);
+    Future<RowSet<Row>> rows = client.select(sql, where.params());
+
+    boolean allRecords = offset == 0 && limit == Integer.MAX_VALUE;
+    Future<TotalCount> totalRecords;
+    if (allRecords) {
+      totalRecords = rows.map(result -> new TotalCount(result.rowCount(), false));
+    } else {
+      totalRecords = switch (totalCountMode) {
+        case NONE -> Future.succeededFuture(new TotalCount(null, false));
+        case ESTIMATED -> estimatedCount(client, qualifiedTable, select.getWhere());
+        case EXACT -> exactCount(client, qualifiedTable, select.getWhere())
+          .map(count -> new TotalCount(count, false));
+      };
+    }
+
+    return Future.all(rows, totalRecords)
+      .map(v -> {
+        TotalCount count = totalRecords.result();
+        int size = rows.result().rowCount();
+        if (count.estimated() && size < limit && (size > 0 || offset == 0)) {
+          count = new TotalCount(offset + size, false);
+        }
+        return JsonbCollection.write(collectionName, rows.result(), 0, new ResultInfo()
+          .withTotalRecords(count.value())
+          .withTotalRecordsEstimated(count.estimated()));
+      });
+  }
+
+  /**
+   * Streams the records matching the CQL query through a server-side cursor that fetches
+   * {@code fetchSize} rows at a time. Records are decoded when they are delivered to the stream handler
+   * and the stream honours {@code pause}/{@code resume}, so memory use doesn't depend on the result size.
+   *
+   * <p>The cursor lives in a transaction that holds a connection until the stream ends, fails or is closed,
+   * so a consumer that stops before the end must call {@link RowMappingStream#close()}.
+   */
+  public Future<RowMappingStream<T>> stream(String cqlQuery, int fetchSize) {
+    if (fetchSize < 1) {
+      return Future.failedFuture(new IllegalArgumentException("Fetch size must be positive: " + fetchSize));
+    }
+
+    ParameterizedSql sql;
+    try {
+      sql = streamSql(cqlQuery);
+    } catch (CQL2PgJSONException e) {
+      return Future.failedFuture(e);
+    }
+
+    return read(client -> openStream(client, sql, fetchSize));
+  }
+
+  private Future<RowMappingStream<T>> openStream(PostgresClient client, ParameterizedSql sql, int fetchSize) {
+    Promise<RowMappingStream<T>> stream = Promise.promise();
+    client.withTrans(conn -> conn.getPgConnection().prepare(sql.sql())
+        .compose(statement -> {
+          Promise<Void> done = Promise.promise();
+          stream.complete(new RowMappingStream<>(statement.createStream(fetchSize, sql.params()), this::decode, done));
+          // the transaction is committed when the stream ends, and rolled back when it fails or is closed
+          return done.future();
+        }))
+      .onFailure(stream::tryFail);
+
+    return stream.future();
+  }
+
+  /**
+   * Returns a page of records matching the CQL query, sorted by the jsonb field and the record id.
+   * Instead of skipping {@code offset} rows the query seeks past the sort key and id of the last record
+   * of the previous page, so with an index on {@code (COALESCE(jsonb->>'field', ''), id)} every page is
+   * as fast as the first one, for a nested field the index expression is
+   * {@code COALESCE(jsonb->'parent'->>'field', '')}. Records without the field sort as an empty string.
+   *
+   * @param cqlQuery CQL query without {@code sortBy}, the sort order is defined by the sort field
+   * @param sortField jsonb field to sort by, nested fields are separated with dots
+   * @param continuationToken {@link KeysetPage#nextToken()} of the previous page, null for the first page,
+   *                          fails if the token has been returned for another CQL query or sort field
+   */
+  public Future<KeysetPage<T>> getPage(String cqlQuery, String sortField, int limit, String continuationToken) {
+    if (limit < 1 || limit == Integer.MAX_VALUE) {
+      return Future.failedFuture(new IllegalArgumentException("Invalid limit: " + limit));
+    }
+
+    ParameterizedSql sql;
+    try {
+      KeysetToken token = continuationToken == null ? null : KeysetToken.decode(continuationToken);
+      sql = pageSql(cqlQuery, sortField, limit, token);
+    } catch (CQL2PgJSONException | IllegalArgumentException e) {
+      return Future.failedFuture(e);
+    }
+
+    return getPage(sql, limit, KeysetToken.query(cqlQuery, sortField));
+  }
+
+  /**
+   * Reads the keyset page of the SQL built by {@link #pageSql}, {@code query} identifies the query in the
+   * continuation token.
+   */
+  Future<KeysetPage<T>> getPage(ParameterizedSql sql, int limit, String query) {
+    return read(client -> client.select(sql.sql(), sql.params())).map(rows -> toPage(rows, limit, query));
+  }
+
+  private Future<Results<T>> getWithExactCount(String cqlQuery, CQLWrapper cql) {
+    String where;
+    try {
+      where = toSql(cqlQuery).getWhere();
+    } catch (CQL2PgJSONException e) {
+      return Future.failedFuture(e);
+    }
+
+    String qualifiedTable = qualifiedTable();
+    // the page and its count are read from the same server, so they agree
+    return read(client -> {
+      Future<Results<T>> page = client.get(table, clazz, cql, false);
+      Future<Integer> count = exactCount(client, qualifiedTable, where);
+      return Future.all(page, count)
+        .map(v -> withTotalRecords(page.result(), count.result(), false));
+    });
+  }
+
+  /**
+   * Counts the records, the table qualified with the schema of the tenant and the query condition
+   * are the key of the cached count.
+   */
+  private Future<Integer> exactCount(PostgresClient client, String qualifiedTable, String where) {
+    String key = qualifiedTable + " WHERE " + where;
+    Integer cached = EXACT_COUNTS.get(key);
+    if (cached != null) {
+      return Future.succeededFuture(cached);
+    }
+
+    ParameterizedSql condition = ParameterizedSql.of(where);
+    String countSql = "SELECT count(*) FROM " + qualifiedTable + " WHERE " + condition.sql();
+    return EXACT_COUNTING.execute(key, () -> client.select(countSql, condition.params())
+      .map(rows -> {
+        int count = (int) Math.min(rows.iterator().next().getLong(0), Integer.MAX_VALUE);
+        EXACT_COUNTS.put(key, count);
+        return count;
+      }));
+  }
+
+  /**
+   * Takes the planner estimate of the rows, below {@link #EXACT_COUNT_THRESHOLD} rows counts them exactly.
+   */
+  private Future<TotalCount> estimatedCount(PostgresClient client, String qualifiedTable, String where) {
+    String explainSql = "EXPLAIN (FORMAT JSON) SELECT 1 FROM " + qualifiedTable + " WHERE " + where;
+    return client.select(explainSql, Tuple.tuple())
+      .compose(rows -> {
+        Object plan = rows.iterator().next().getValue(0);
+        JsonArray plans = plan instanceof JsonArray json ? json : new JsonArray(plan.toString());
+        long estimate = plans.getJsonObject(0).getJsonObject("Plan").getLong("Plan Rows");
+        if (estimate < EXACT_COUNT_THRESHOLD) {
+          return exactCount(client, qualifiedTable, where).map(count -> new TotalCount(count, false));
+        }
+        return Future.succeededFuture(new TotalCount((int) Math.min(estimate, Integer.MAX_VALUE), true));
+      });
+  }
+
+  private static <T> Results<T> withTotalRecords(Results<T> results, Integer totalRecords, boolean estimated) {
+    if (results.getResultInfo() == null) {
+      results.setResultInfo(new ResultInfo());
+    }
+    results.getResultInfo()
+        .withTotalRecords(totalRecords)
+        .withTotalRecordsEstimated(estimated);
+    return results;
+  }
+
+  ParameterizedSql streamSql(String cqlQuery) throws CQL2PgJSONException {
+    SqlSelect select = toSql(cqlQuery);
+    ParameterizedSql where = ParameterizedSql.of(select.getWhere());
+    String orderBy = select.getOrderBy();
+
+    return new ParameterizedSql("SELECT " + JsonbCodec.TEXT_COLUMN + " FROM " + qualifiedTable()
+      + " WHERE " + where.sql()
+      + (orderBy == null || orderBy.isEmpty() ? "" : " ORDER BY " + orderBy), where.params());
+  }
+
+  ParameterizedSql pageSql(String cqlQuery, String sortField, int limit, KeysetToken after)
+    throws CQL2PgJSONException {
+    if (sortField == null || !SORT_FIELD.matcher(sortField).matches()) {
+      throw new IllegalArgumentException("Invalid sort field: " + sortField);
+    }
+
+    if (after != null && !after.query().equals(KeysetToken.query(cqlQuery, sortField))) {
+      throw new IllegalArgumentException("Continuation token belongs to another query or sort field");
+    }
+
+    SqlSelect select = toSql(cqlQuery);
+    if (select.getOrderBy() != null && !select.getOrderBy().isEmpty()) {
+      throw new IllegalArgumentException("CQL query of a keyset page must not contain sortBy: " + cqlQuery);
+    }
+
+    String sortKey = "COALESCE(" + sortPath(sortField) + ", '')";
+    ParameterizedSql where = ParameterizedSql.of(select.getWhere());
+    Tuple params = where.params();
+    String seek = "";
+    if (after != null) {
+      // the search terms of the condition are bound first
+      seek = " AND (" + sortKey + ", id) > ($" + (params.size() + 1) + ", $" + (params.size() + 2) + ")";
+      params.addValue(after.sortKey()).addValue(after.id());
+    }
+
+    return new ParameterizedSql("SELECT " + JsonbCodec.TEXT_COLUMN + ", id, " + sortKey + " AS sort_key"
+      + " FROM " + qualifiedTable()
+      + " WHERE (" + where.sql() + ")" + seek
+      + " ORDER BY " + sortKey + ", id"
+      + " LIMIT " + (limit + 1), params);
+  }
+
+  /**
+   * Returns the jsonb path of the field as the indexable {@code jsonb->'a'->>'b'} chain.
+   */
+  private static String sortPath(String sortField) {
+    StringBuilder path = new StringBuilder("jsonb");
+    String[] names = sortField.split("\\.");
+    for (int i = 0; i < names.length; i++) {
+      path.append(i == names.length - 1 ? "->>'" : "->'").append(names[i]).append('\'');
+    }
+    return path.toString();
+  }
+
+  /**
+   * Drops all cached exact counts, for example after the records of a table have been replaced.
+   */
+  public static void clearCountCache() {
+    EXACT_COUNTS.invalidateAll();
+  }
+
+  /**
+   * Returns the client of the primary.
+   */
+  protected PostgresClient getPostgresClient() {
+    return pg;
+  }
+
+  protected String getTable() {
+    return table;
+  }
+
+  protected Class<T> getClazz() {
+    return clazz;
+  }
+
+  /**
+   * Runs the read-only operation on the client chosen by the read routing policy, on the primary without it.
+   */
+  <R> Future<R> read(Function<PostgresClient, Future<R>> operation) {
+    return readRouting == null ? operation.apply(pg) : readRouting.read(operation);
+  }
+
+  String qualifiedTable() {
+    return PostgresClient.convertToPsqlStandard(pg.getTenantId()) + "." + table;
+  }
+
+  private SqlSelect toSql(String cqlQuery) throws CQL2PgJSONException {
+    return DbUtils.toSql(table, cqlQuery);
+  }
+
+  private KeysetPage<T> toPage(RowSet<Row> rows, int limit, String query) {
+    List<T> items = new ArrayList<>(Math.min(rows.rowCount(), limit));
+    Row last = null;
+    for (Row row : rows) {
+      if (items.size() == limit) {
+        // the extra row only tells that there is a next page
+        return new KeysetPage<>(items, new KeysetToken(query, last.getString(2), last.getUUID(1)).encode());
+      }
+      items.add(decode(row));
+      last = row;
+    }
+    return new KeysetPage<>(items, null);
+  }
+
+  private T decode(Row row) {
+    return JsonbCodec.decode(row, 0, clazz);
+  }
+
+  private record TotalCount(Integer value, boolean estimated) {
   }
 }
@@ -3,14 +3,30 @@ package org.folio.db;
 import io.vertx.core.json.JsonArray;
 import io.vertx.sqlclient.Tuple;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
 import org.folio.cql2pgjson.CQL2PgJSON;
 import org.folio.cql2pgjson.exception.FieldException;
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.cql2pgjson.model.SqlSelect;
 import org.folio.rest.persist.Criteria.Limit;
 import org.folio.rest.persist.Criteria.Offset;
 import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.util.BoundedCache;
 
 public final class DbUtils {
 
+  /**
+   * Max number of CQL translations cached, CQL2PgJSON instances are cached per table up to the same number.
+   * The translations are cached by the CQL2PgJSON instances themselves, so the CQLWrappers created by
+   * {@link #getCQLWrapper} use the cache too.
+   */
+  static final int CQL_CACHE_SIZE = Integer.getInteger("folio.cql.cache.size", 1000);
+
+  private static final BoundedCache<String, CQL2PgJSON> CQL2PGJSON_CACHE = new BoundedCache<>(CQL_CACHE_SIZE);
+  private static final BoundedCache<CqlKey, SqlSelect> TRANSLATION_CACHE = new BoundedCache<>(CQL_CACHE_SIZE);
+
   private DbUtils() {
   }
 
@@ -21,10 +37,55 @@ public final class DbUtils {
   }
 
   public static CQLWrapper getCQLWrapper(String tableName, String query) throws FieldException {
-    CQL2PgJSON cql2pgJson = new CQL2PgJSON(tableName + ".jsonb");
-    return new CQLWrapper(cql2pgJson, query);
+    return new CQLWrapper(getCQL2PgJSON(tableName), query);
+  }
+
+  /**
+   * Returns the shared CQL2PgJSON of the jsonb column of the table. The instance must not be configured
+   * any further, its translations are cached for every user of the table.
+   */
+  static CQL2PgJSON getCQL2PgJSON(String tableName) throws FieldException {
+    CQL2PgJSON cql2pgJson = CQL2PGJSON_CACHE.get(tableName);
+    if (cql2pgJson == null) {
+      cql2pgJson = new CachingCql2PgJson(tableName);
+      CQL2PGJSON_CACHE.put(tableName, cql2pgJson);
+    }
+    return cql2pgJson;
+  }
+
+  /**
+   * Translates the CQL query on the jsonb column of the table into SQL, translations are cached.
+   */
+  public static SqlSelect toSql(String tableName, String query) throws FieldException, QueryValidationException {
+    return getCQL2PgJSON(tableName).toSql(query);
   }
 
+  /**
+   * Translates the CQL query into the WHERE condition with the search terms as bind parameters,
+   * see {@link ParameterizedSql}.
+   */
+  public static ParameterizedSql toParameterizedWhere(String tableName, String query)
+    throws FieldException, QueryValidationException {
+    return ParameterizedSql.of(toSql(tableName, query).getWhere());
+  }
+
+  public static long getTranslationCacheHits() {
+    return TRANSLATION_CACHE.getHits();
+  }
+
+  public static long getTranslationCacheMisses() {
+    return TRANSLATION_CACHE.getMisses();
+  }
+
+  public static void clearCqlCache() {
+    CQL2PGJSON_CACHE.invalidateAll();
+    TRANSLATION_CACHE.invalidateAll();
+  }
+
+  /**
+   * Creates parameters from the values, {@link java.util.UUID} values are bound as {@code uuid}
+   * without converting them to text.
+   */
   public static Tuple createParams(Iterable<?> queryParameters) {
     Tuple parameters = Tuple.tuple();
     queryParameters.forEach(parameters::addValue);
@@ -35,6 +96,19 @@ public final class DbUtils {
     return createParams(Arrays.asList(queryParameters));
   }
 
+  /**
+   * Creates a single {@code uuid[]} parameter from the ids, for looking up many records with
+   * {@code WHERE id = ANY($1)}. Ids given as strings are parsed, ids given as {@link UUID} are bound as they are.
+   */
+  public static Tuple createUuidArrayParam(Collection<?> ids) {
+    UUID[] values = new UUID[ids.size()];
+    int i = 0;
+    for (Object id : ids) {
+      values[i++] = id instanceof UUID uuid ? uuid : RowSetUtils.toUUID(Objects.toString(id, null));
+    }
+    return Tuple.of(values);
+  }
+
   public static JsonArray createParamsAsJsonArray(Iterable<?> queryParameters) {
     JsonArray parameters = new JsonArray();
 
@@ -53,4 +127,31 @@ public final class DbUtils {
     return createParamsAsJsonArray(Arrays.asList(queryParameters));
   }
 
+  private record CqlKey(String tableName, String query) {
+  }
+
+  /**
+   * CQL2PgJSON that takes translations from the translation cache, for both {@link #toSql(String, String)}
+   * and the CQLWrappers that translate the query themselves.
+   */
+  private static final class CachingCql2PgJson extends CQL2PgJSON {
+
+    private final String tableName;
+
+    private CachingCql2PgJson(String tableName) throws FieldException {
+      super(tableName + ".jsonb");
+      this.tableName = tableName;
+    }
+
+    @Override
+    public SqlSelect toSql(String cql) throws QueryValidationException {
+      CqlKey key = new CqlKey(tableName, cql);
+      SqlSelect sql = TRANSLATION_CACHE.get(key);
+      if (sql == null) {
+        sql = super.toSql(cql);
+        TRANSLATION_CACHE.put(key, sql);
+      }
+      return sql;
+    }
+  }
 }
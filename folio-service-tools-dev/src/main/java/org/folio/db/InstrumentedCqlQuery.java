@@ -0,0 +1,51 @@
+package org.folio.db;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Tuple;
+import org.folio.db.metrics.QueryInstrumentation;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.rest.persist.interfaces.Results;
+
+/**
+ * {@link CqlQuery} that reports the latency and row count of {@link #get} and {@link #getPage} queries
+ * to a {@link QueryInstrumentation}.
+ *
+ * <p>The shape and the explained SQL of {@code get} are rendered from the same CQLWrapper the query runs with,
+ * as {@code PostgresClient.get} sends it, without the total records query that the page may need.
+ * The shape and the explained SQL of {@code getPage} are the SQL the page is read with.
+ */
+public class InstrumentedCqlQuery<T> extends CqlQuery<T> {
+
+  private final QueryInstrumentation instrumentation;
+
+  public InstrumentedCqlQuery(PostgresClient pg, String table, Class<T> clazz,
+                              QueryInstrumentation instrumentation) {
+    super(pg, table, clazz);
+    this.instrumentation = instrumentation;
+  }
+
+  /**
+   * Creates a query that reads as the read routing policy decides, slow queries are explained on the primary.
+   */
+  public InstrumentedCqlQuery(ReadRoutingPolicy readRouting, String table, Class<T> clazz,
+                              QueryInstrumentation instrumentation) {
+    super(readRouting, table, clazz);
+    this.instrumentation = instrumentation;
+  }
+
+  @Override
+  Future<Results<T>> get(String cqlQuery, CQLWrapper cql, int offset, int limit, TotalCountMode totalCountMode) {
+    // the search terms are inline, as in the query that PostgresClient.get sends
+    ParameterizedSql sql = new ParameterizedSql(
+      "SELECT jsonb FROM " + qualifiedTable() + " " + cql.toString().trim(), Tuple.tuple());
+    return instrumentation.measure(getPostgresClient(), getTable(), sql,
+      () -> super.get(cqlQuery, cql, offset, limit, totalCountMode), results -> results.getResults().size());
+  }
+
+  @Override
+  Future<KeysetPage<T>> getPage(ParameterizedSql sql, int limit, String query) {
+    return instrumentation.measure(getPostgresClient(), getTable(), sql, () -> super.getPage(sql, limit, query),
+      page -> page.items().size());
+  }
+}
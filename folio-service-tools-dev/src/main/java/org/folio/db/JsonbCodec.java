@@ -0,0 +1,111 @@
+package org.folio.db;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+
+import org.folio.dbschema.ObjectMapperTool;
+
+/**
+ * Decodes jsonb values straight into objects and encodes objects for jsonb parameters,
+ * without building a {@link JsonObject} tree in between.
+ *
+ * <p>Readers and writers are built once per class from the RMB object mapper. The jsonb column should be
+ * selected as text, see {@link #TEXT_COLUMN}: a jsonb value is parsed into a {@link JsonObject} by the client
+ * and has to be encoded again before it is decoded.
+ */
+public final class JsonbCodec {
+
+  /**
+   * Select list item that returns the jsonb column as text under the name {@code jsonb}.
+   */
+  public static final String TEXT_COLUMN = "jsonb::text AS jsonb";
+
+  private static final ClassValue<ObjectReader> READERS = new ClassValue<>() {
+    @Override
+    protected ObjectReader computeValue(Class<?> type) {
+      return ObjectMapperTool.getMapper().readerFor(type);
+    }
+  };
+
+  private static final ClassValue<ObjectWriter> WRITERS = new ClassValue<>() {
+    @Override
+    protected ObjectWriter computeValue(Class<?> type) {
+      return ObjectMapperTool.getMapper().writerFor(type);
+    }
+  };
+
+  private JsonbCodec() {
+  }
+
+  /**
+   * Returns a function that decodes the column of a row into the class.
+   */
+  public static <T> Function<Row, T> decoder(Class<T> type, String column) {
+    ObjectReader reader = READERS.get(type);
+    return row -> read(reader, row.getValue(column));
+  }
+
+  public static <T> T decode(Row row, int column, Class<T> type) {
+    return read(READERS.get(type), row.getValue(column));
+  }
+
+  public static <T> T decode(String json, Class<T> type) {
+    return read(READERS.get(type), json);
+  }
+
+  /**
+   * Encodes the object as JSON text, to be bound to a {@code $n::text::jsonb} parameter. Bound to a plain
+   * {@code $n::jsonb} parameter the client would encode the string as a JSON string value.
+   */
+  public static String encode(Object value) {
+    if (value == null) {
+      return null;
+    }
+
+    try {
+      return WRITERS.get(value.getClass()).writeValueAsString(value);
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  public static Buffer encodeToBuffer(Object value) {
+    if (value == null) {
+      return null;
+    }
+
+    try {
+      return Buffer.buffer(WRITERS.get(value.getClass()).writeValueAsBytes(value));
+    } catch (JsonProcessingException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static <T> T read(ObjectReader reader, Object value) {
+    try {
+      if (value == null) {
+        return null;
+      } else if (value instanceof String text) {
+        return reader.readValue(text);
+      } else if (value instanceof Buffer buffer) {
+        return reader.readValue(buffer.getBytes());
+      } else if (value instanceof JsonObject json) {
+        return reader.readValue(json.toBuffer().getBytes());
+      } else if (value instanceof JsonArray json) {
+        return reader.readValue(json.toBuffer().getBytes());
+      }
+      throw new IllegalArgumentException("Unsupported jsonb value: " + value.getClass().getName());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package org.folio.db;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+
+import org.folio.rest.jaxrs.model.ResultInfo;
+
+/**
+ * Writes the jsonb values of rows as a collection response body without decoding them:
+ * <pre>{@code {"<collectionName>":[<jsonb>,...],"totalRecords":<n>,"resultInfo":{...}}}</pre>
+ *
+ * <p>The jsonb column should be selected as text, see {@link JsonbCodec#TEXT_COLUMN},
+ * then each value is copied into the body as it is.
+ */
+public final class JsonbCollection {
+
+  private static final int ESTIMATED_RECORD_SIZE = 512;
+
+  private JsonbCollection() {
+  }
+
+  /**
+   * @param column index of the jsonb column
+   * @param resultInfo result info of the collection, {@code totalRecords} is taken from it
+   */
+  public static Buffer write(String collectionName, RowSet<Row> rows, int column, ResultInfo resultInfo) {
+    Buffer body = Buffer.buffer(64 + rows.rowCount() * ESTIMATED_RECORD_SIZE)
+      .appendByte((byte) '{')
+      .appendString(Json.encode(collectionName))
+      .appendString(":[");
+
+    boolean first = true;
+    for (Row row : rows) {
+      if (!first) {
+        body.appendByte((byte) ',');
+      }
+      appendValue(body, row.getValue(column));
+      first = false;
+    }
+    body.appendByte((byte) ']');
+
+    if (resultInfo.getTotalRecords() != null) {
+      body.appendString(",\"totalRecords\":").appendString(resultInfo.getTotalRecords().toString());
+    }
+    return body.appendString(",\"resultInfo\":")
+      .appendString(JsonbCodec.encode(resultInfo))
+      .appendByte((byte) '}');
+  }
+
+  private static void appendValue(Buffer body, Object value) {
+    if (value == null) {
+      body.appendString("null");
+    } else if (value instanceof String json) {
+      body.appendString(json);
+    } else if (value instanceof Buffer json) {
+      body.appendBuffer(json);
+    } else if (value instanceof JsonObject json) {
+      body.appendBuffer(json.toBuffer());
+    } else if (value instanceof JsonArray json) {
+      body.appendBuffer(json.toBuffer());
+    } else {
+      throw new IllegalArgumentException("Unsupported jsonb value: " + value.getClass().getName());
+    }
+  }
+}
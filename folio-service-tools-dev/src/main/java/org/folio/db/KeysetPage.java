@@ -0,0 +1,16 @@
+package org.folio.db;
+
+import java.util.List;
+
+/**
+ * Page of records returned by {@link CqlQuery#getPage(String, String, int, String)}.
+ *
+ * @param items records of the page
+ * @param nextToken continuation token of the next page, null if this is the last page
+ */
+public record KeysetPage<T>(List<T> items, String nextToken) {
+
+  public boolean hasMore() {
+    return nextToken != null;
+  }
+}
@@ -0,0 +1,53 @@
+package org.folio.db;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.UUID;
+
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Sort key and id of the last record of a keyset page, encoded as an opaque URL-safe string.
+ *
+ * <p>The token carries a hash of the CQL query and the sort field it was created for, see
+ * {@link #query(String, String)}, so that a token of another query can be rejected.
+ */
+record KeysetToken(String query, String sortKey, UUID id) {
+
+  private static final int QUERY_HASH_BYTES = 12;
+
+  /**
+   * Returns the hash of the CQL query and the sort field that identifies the query of a token.
+   */
+  static String query(String cqlQuery, String sortField) {
+    try {
+      byte[] hash = MessageDigest.getInstance("SHA-256")
+        .digest((sortField + '\n' + cqlQuery).getBytes(StandardCharsets.UTF_8));
+      return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, QUERY_HASH_BYTES));
+    } catch (NoSuchAlgorithmException e) {
+      // every Java platform supports SHA-256
+      throw new IllegalStateException(e);
+    }
+  }
+
+  String encode() {
+    String json = new JsonArray().add(query).add(sortKey).add(id.toString()).encode();
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  static KeysetToken decode(String token) {
+    try {
+      JsonArray json = new JsonArray(new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8));
+      if (json.size() != 3 || json.getString(0) == null) {
+        throw new IllegalArgumentException("Invalid continuation token: " + token);
+      }
+      return new KeysetToken(json.getString(0), json.getString(1), UUID.fromString(json.getString(2)));
+    } catch (DecodeException | ClassCastException | NullPointerException e) {
+      throw new IllegalArgumentException("Invalid continuation token: " + token, e);
+    }
+  }
+}
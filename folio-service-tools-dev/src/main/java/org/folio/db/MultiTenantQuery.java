@@ -0,0 +1,182 @@
+package org.folio.db;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import org.apache.commons.lang3.Validate;
+
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.interfaces.Results;
+import org.folio.util.FutureUtils;
+
+/**
+ * Runs the same CQL query against the schemas of many tenants, for example the member tenants of a consortium.
+ *
+ * <p>At most {@code maxConcurrency} tenants are queried at the same time. A tenant that fails or doesn't answer
+ * within the tenant timeout is reported in {@link MultiTenantResult#failures()}, the records of the other
+ * tenants are returned anyway. Records are merged into the result in the given order as each tenant answers.
+ *
+ * <p>The result is returned as soon as every tenant has answered or timed out. A query that has timed out
+ * keeps its place among the {@code maxConcurrency} running queries until it completes, so no more queries
+ * than that run on the databases at any time, and its late records are dropped.
+ */
+public class MultiTenantQuery<T> {
+
+  private final Vertx vertx;
+  private final Function<String, CqlQuery<T>> queries;
+  private final int maxConcurrency;
+  private final Duration tenantTimeout;
+
+  public MultiTenantQuery(Vertx vertx, String table, Class<T> clazz, int maxConcurrency, Duration tenantTimeout) {
+    this(vertx, tenantId -> new CqlQuery<>(PostgresClient.getInstance(vertx, tenantId), table, clazz),
+      maxConcurrency, tenantTimeout);
+  }
+
+  /**
+   * @param queries creates the query of a tenant, for example a {@link CachingCqlQuery}
+   */
+  public MultiTenantQuery(Vertx vertx, Function<String, CqlQuery<T>> queries, int maxConcurrency,
+                          Duration tenantTimeout) {
+    Validate.isTrue(maxConcurrency > 0, "Max concurrency must be positive: %d", maxConcurrency);
+    Validate.isTrue(tenantTimeout.isPositive(), "Tenant timeout must be positive: %s", tenantTimeout);
+    this.vertx = Objects.requireNonNull(vertx);
+    this.queries = Objects.requireNonNull(queries);
+    this.maxConcurrency = maxConcurrency;
+    this.tenantTimeout = tenantTimeout;
+  }
+
+  /**
+   * Returns the first {@code limit} records of all tenants in the given order. Each tenant returns up to
+   * {@code limit} records, which must already be sorted in the same order, usually by a {@code sortBy}
+   * of the CQL query. A tenant listed more than once is queried once.
+   */
+  public Future<MultiTenantResult<T>> get(Collection<String> tenantIds, String cqlQuery, int limit,
+                                          Comparator<? super T> order) {
+    Validate.isTrue(limit > 0, "Limit must be positive: %d", limit);
+    Set<String> tenants = new LinkedHashSet<>(tenantIds);
+    if (tenants.isEmpty()) {
+      return Future.succeededFuture(new MultiTenantResult<>(List.of(), Map.of()));
+    }
+
+    Merger<T> merger = new Merger<>(order, limit);
+    Promise<MultiTenantResult<T>> result = Promise.promise();
+    AtomicInteger pending = new AtomicInteger(tenants.size());
+    Runnable settled = () -> {
+      if (pending.decrementAndGet() == 0) {
+        result.complete(merger.result());
+      }
+    };
+
+    // the traverse slot is released when the query completes, not when it times out
+    FutureUtils.traverse(tenants, tenantId -> query(tenantId, cqlQuery, limit, merger, settled), maxConcurrency);
+    return result.future();
+  }
+
+  /**
+   * Runs the query of the tenant, the returned Future completes with the query. The tenant is settled with
+   * the records or the failure of the query, or with a timeout if the query takes longer than the timeout.
+   */
+  private Future<Void> query(String tenantId, String cqlQuery, int limit, Merger<T> merger, Runnable settled) {
+    AtomicBoolean done = new AtomicBoolean();
+    long timerId = vertx.setTimer(Math.max(1, tenantTimeout.toMillis()), id -> {
+      if (done.compareAndSet(false, true)) {
+        merger.fail(tenantId, new TimeoutException("Tenant " + tenantId + " has not answered within " + tenantTimeout));
+        settled.run();
+      }
+    });
+
+    Future<List<T>> query;
+    try {
+      query = queries.apply(tenantId).get(cqlQuery, 0, limit, TotalCountMode.NONE).map(Results::getResults);
+    } catch (Throwable e) {
+      query = Future.failedFuture(e);
+    }
+    return query.transform(ar -> {
+      vertx.cancelTimer(timerId);
+      if (done.compareAndSet(false, true)) {
+        if (ar.succeeded()) {
+          merger.merge(tenantId, ar.result());
+        } else {
+          merger.fail(tenantId, ar.cause());
+        }
+        settled.run();
+      }
+      return Future.<Void>succeededFuture();
+    });
+  }
+
+  /**
+   * Record of a tenant.
+   */
+  public record TenantRecord<T>(String tenantId, T record) {
+  }
+
+  /**
+   * @param records records of the tenants that have answered, in the requested order
+   * @param failures failures of the tenants that have not answered, by tenant id
+   */
+  public record MultiTenantResult<T>(List<TenantRecord<T>> records, Map<String, Throwable> failures) {
+
+    public boolean isComplete() {
+      return failures.isEmpty();
+    }
+  }
+
+  private static final class Merger<T> {
+
+    private final Comparator<TenantRecord<T>> order;
+    private final int limit;
+    private final Map<String, Throwable> failures = new LinkedHashMap<>();
+    private List<TenantRecord<T>> merged = new ArrayList<>();
+
+    private Merger(Comparator<? super T> order, int limit) {
+      this.order = Comparator.<TenantRecord<T>, T>comparing(TenantRecord::record, order);
+      this.limit = limit;
+    }
+
+    private synchronized void merge(String tenantId, List<T> records) {
+      List<TenantRecord<T>> result = new ArrayList<>(Math.min(limit, merged.size() + records.size()));
+      int i = 0;
+      int j = 0;
+      while (result.size() < limit && (i < merged.size() || j < records.size())) {
+        if (j == records.size()) {
+          result.add(merged.get(i++));
+        } else {
+          TenantRecord<T> next = new TenantRecord<>(tenantId, records.get(j));
+          if (i < merged.size() && order.compare(merged.get(i), next) <= 0) {
+            result.add(merged.get(i++));
+          } else {
+            result.add(next);
+            j++;
+          }
+        }
+      }
+      merged = result;
+    }
+
+    private synchronized void fail(String tenantId, Throwable cause) {
+      failures.put(tenantId, cause);
+    }
+
+    private synchronized MultiTenantResult<T> result() {
+      return new MultiTenantResult<>(List.copyOf(merged),
+        Collections.unmodifiableMap(new LinkedHashMap<>(failures)));
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package org.folio.db;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.sqlclient.Tuple;
+
+/**
+ * SQL with the string literals replaced by bind parameters {@code $1::text, $2::text, ...}, so queries of the
+ * same shape share one prepared statement and one plan. The values are bound as strings and the
+ * {@code ::text} cast makes Postgres type the parameters as text, an explicit cast of the literal such as
+ * {@code '...'::jsonb} is applied to the text.
+ *
+ * <p>Only literals known to be text are replaced: literals with an explicit cast, arguments of a function
+ * such as {@code lower('...')} and literals compared with a text value extracted by {@code ->>} or
+ * {@code #>>}. Other literals, for example the UUIDs compared with the {@code id} column, are left to the
+ * type inference of Postgres and stay inline. Literals that are part of the shape stay inline too:
+ * jsonb paths after {@code ->}, {@code ->>}, {@code #>} and {@code #>>}, text search configurations cast to
+ * {@code regconfig} and prefixed literals such as {@code E'...'}. Keeping them inline lets the planner match
+ * the expressions of functional indexes. Numeric literals are kept as well. As the inline literals differ
+ * between queries, the template is no query shape, {@link org.folio.db.metrics.QueryShape} strips them all.
+ *
+ * @param sql SQL template with bind parameters
+ * @param params values of the bind parameters
+ */
+public record ParameterizedSql(String sql, Tuple params) {
+
+  public static ParameterizedSql of(String sql) {
+    return of(sql, 0);
+  }
+
+  /**
+   * Replaces the literals with bind parameters numbered from {@code paramOffset + 1},
+   * for SQL that is appended to a statement that already has {@code paramOffset} parameters.
+   */
+  public static ParameterizedSql of(String sql, int paramOffset) {
+    StringBuilder template = new StringBuilder(sql.length());
+    List<Object> values = new ArrayList<>();
+
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (c == '"' || c == '\'') {
+        int end = closingQuote(sql, i);
+        if (c == '\'' && !isInline(sql, i, end) && isText(sql, end, template)) {
+          values.add(sql.substring(i + 1, end).replace("''", "'"));
+          template.append('$').append(paramOffset + values.size()).append("::text");
+        } else {
+          template.append(sql, i, end + 1);
+        }
+        i = end + 1;
+      } else {
+        template.append(c);
+        i++;
+      }
+    }
+
+    return new ParameterizedSql(template.toString(), DbUtils.createParams(values));
+  }
+
+  private static int closingQuote(String sql, int start) {
+    char quote = sql.charAt(start);
+    int i = start + 1;
+    while (i < sql.length()) {
+      if (sql.charAt(i) == quote) {
+        // a doubled quote is an escaped quote
+        if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+          i += 2;
+          continue;
+        }
+        return i;
+      }
+      i++;
+    }
+    throw new IllegalArgumentException("Unterminated quote at " + start + ": " + sql);
+  }
+
+  /**
+   * Returns whether the literal that ends at {@code end} is known to be text, the template holds the SQL
+   * before the literal.
+   */
+  private static boolean isText(String sql, int end, StringBuilder template) {
+    if (sql.startsWith("::", end + 1)) {
+      return true;
+    }
+
+    int j = skipWhitespace(template, template.length() - 1);
+    if (j < 0) {
+      return false;
+    }
+    if (template.charAt(j) == '(') {
+      // argument of a function, but not of IN (...)
+      int nameEnd = j;
+      j--;
+      while (j >= 0 && (Character.isLetterOrDigit(template.charAt(j)) || template.charAt(j) == '_')) {
+        j--;
+      }
+      return nameEnd - j > 1 && !"in".equalsIgnoreCase(template.substring(j + 1, nameEnd));
+    }
+
+    int operatorEnd = j;
+    while (j >= 0 && "=<>!~*".indexOf(template.charAt(j)) >= 0) {
+      j--;
+    }
+    if (j == operatorEnd) {
+      while (j >= 0 && Character.isLetter(template.charAt(j))) {
+        j--;
+      }
+      String keyword = template.substring(j + 1, operatorEnd + 1);
+      if (!"like".equalsIgnoreCase(keyword) && !"ilike".equalsIgnoreCase(keyword)) {
+        return false;
+      }
+    }
+
+    // the left operand must be a jsonb path extracted as text, its key has been kept inline
+    j = skipWhitespace(template, j);
+    if (j < 1 || template.charAt(j) != '\'') {
+      return false;
+    }
+    int keyStart = template.lastIndexOf("'", j - 1);
+    if (keyStart < 0) {
+      return false;
+    }
+    j = skipWhitespace(template, keyStart - 1);
+    return j >= 2 && template.charAt(j) == '>' && template.charAt(j - 1) == '>'
+      && (template.charAt(j - 2) == '-' || template.charAt(j - 2) == '#');
+  }
+
+  private static int skipWhitespace(CharSequence sql, int from) {
+    int j = from;
+    while (j >= 0 && Character.isWhitespace(sql.charAt(j))) {
+      j--;
+    }
+    return j;
+  }
+
+  private static boolean isInline(String sql, int start, int end) {
+    if (start > 0 && Character.isLetter(sql.charAt(start - 1))) {
+      return true;
+    }
+    if (sql.startsWith("::regconfig", end + 1)) {
+      return true;
+    }
+
+    int j = start - 1;
+    while (j >= 0 && Character.isWhitespace(sql.charAt(j))) {
+      j--;
+    }
+    if (j < 1 || sql.charAt(j) != '>') {
+      return false;
+    }
+    j--;
+    if (sql.charAt(j) == '>' && j > 0) {
+      j--;
+    }
+    return sql.charAt(j) == '-' || sql.charAt(j) == '#';
+  }
+}
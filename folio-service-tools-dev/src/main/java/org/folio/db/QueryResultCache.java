@@ -0,0 +1,106 @@
+package org.folio.db;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.Future;
+import io.vertx.pgclient.pubsub.PgSubscriber;
+
+import org.folio.rest.persist.interfaces.Results;
+import org.folio.util.BoundedCache;
+
+/**
+ * Results of {@link CachingCqlQuery} shared by all queries of a module instance.
+ *
+ * <p>Entries are dropped when they are older than the time to live, when the cache is full,
+ * and when a table changes: a trigger created with {@link #triggerSql(String, String)} notifies
+ * the {@link #CHANNEL} channel with the schema qualified table name, and every module instance
+ * that {@link #listen(PgSubscriber) listens} to the channel drops the entries of the table.
+ */
+public final class QueryResultCache {
+
+  public static final String CHANNEL = "folio_query_cache";
+
+  private final BoundedCache<Key, Results<?>> results;
+  // incremented on every invalidation, so results read before an invalidation are not cached after it
+  private final AtomicLong generation = new AtomicLong();
+
+  public QueryResultCache(int maxSize, Duration ttl) {
+    this.results = new BoundedCache<>(maxSize, ttl);
+  }
+
+  /**
+   * Subscribes to the invalidation channel. All entries are dropped whenever the subscriber (re)connects,
+   * as notifications sent while it was disconnected are lost.
+   */
+  public Future<Void> listen(PgSubscriber subscriber) {
+    subscriber.channel(CHANNEL)
+      .subscribeHandler(v -> invalidateAll())
+      .handler(this::invalidateTable);
+    return subscriber.connect();
+  }
+
+  /**
+   * Drops the results of the table, qualified with the schema of the tenant.
+   */
+  public void invalidateTable(String qualifiedTable) {
+    generation.incrementAndGet();
+    results.invalidateIf(key -> key.qualifiedTable().equals(qualifiedTable));
+  }
+
+  public void invalidateAll() {
+    generation.incrementAndGet();
+    results.invalidateAll();
+  }
+
+  public long getHits() {
+    return results.getHits();
+  }
+
+  public long getMisses() {
+    return results.getMisses();
+  }
+
+  /**
+   * Returns SQL that creates a trigger notifying the cache about every change of the table,
+   * the schema and the table name are quoted as identifiers.
+   */
+  public static String triggerSql(String schema, String table) {
+    return """
+      CREATE OR REPLACE FUNCTION %1$s.notify_query_cache() RETURNS trigger AS $$
+      BEGIN
+        PERFORM pg_notify('%3$s', TG_TABLE_SCHEMA || '.' || TG_TABLE_NAME);
+        RETURN NULL;
+      END;
+      $$ LANGUAGE plpgsql;
+      DROP TRIGGER IF EXISTS notify_query_cache ON %1$s.%2$s;
+      CREATE TRIGGER notify_query_cache AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON %1$s.%2$s
+        FOR EACH STATEMENT EXECUTE FUNCTION %1$s.notify_query_cache();
+      """.formatted(quoteIdentifier(schema), quoteIdentifier(table), CHANNEL);
+  }
+
+  private static String quoteIdentifier(String identifier) {
+    return '"' + identifier.replace("\"", "\"\"") + '"';
+  }
+
+  long generation() {
+    return generation.get();
+  }
+
+  @SuppressWarnings("unchecked")
+  <T> Results<T> get(Key key) {
+    return (Results<T>) results.get(key);
+  }
+
+  /**
+   * Caches the results unless the cache has been invalidated since the given generation.
+   */
+  void put(Key key, Results<?> value, long readGeneration) {
+    if (generation.get() == readGeneration) {
+      results.put(key, value);
+    }
+  }
+
+  record Key(String qualifiedTable, Class<?> type, String sql, int offset, int limit, TotalCountMode totalCountMode) {
+  }
+}
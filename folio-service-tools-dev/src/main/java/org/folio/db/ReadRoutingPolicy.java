@@ -0,0 +1,170 @@
+package org.folio.db;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Tuple;
+import org.apache.commons.lang3.Validate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.folio.db.exc.DbExcUtils;
+import org.folio.rest.persist.PostgresClient;
+
+/**
+ * Sends read-only operations to a replica while the replica keeps up with the primary, everything else
+ * to the primary.
+ *
+ * <p>The replication lag is checked on the replica at most once per {@code lagCheckInterval}, the check runs
+ * in the background and reads use the last measured lag. Reads go to the primary until the first check
+ * has completed, while the lag is above {@code maxLag} and after a connection failure of the replica
+ * until the next successful check. A read that fails on the replica with a connection failure or another
+ * transient error, see {@link DbExcUtils#isTransient(Throwable)}, is repeated on the primary.
+ */
+public final class ReadRoutingPolicy {
+
+  private static final Logger LOGGER = LogManager.getLogger(ReadRoutingPolicy.class);
+
+  /**
+   * Seconds since the last replayed transaction, 0 if all received WAL has been replayed or on a primary.
+   */
+  static final String LAG_SQL = "SELECT CASE"
+    + " WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+    + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+  private final PostgresClient primary;
+  private final PostgresClient replica;
+  private final long maxLagMillis;
+  private final long lagCheckIntervalNanos;
+  private final Predicate<Throwable> fallbackOn;
+
+  private final AtomicBoolean checking = new AtomicBoolean();
+  private volatile long nextCheckNanos = System.nanoTime();
+  private volatile long lagMillis = -1;
+  private volatile boolean replicaDown;
+
+  private ReadRoutingPolicy(Builder builder) {
+    this.primary = builder.primary;
+    this.replica = builder.replica;
+    this.maxLagMillis = builder.maxLag.toMillis();
+    this.lagCheckIntervalNanos = builder.lagCheckInterval.toNanos();
+    this.fallbackOn = builder.fallbackOn;
+  }
+
+  public static Builder builder(PostgresClient primary, PostgresClient replica) {
+    return new Builder(primary, replica);
+  }
+
+  public PostgresClient getPrimary() {
+    return primary;
+  }
+
+  /**
+   * Runs the read-only operation on the replica if it is usable, otherwise or if it fails there
+   * with a connection failure, on the primary.
+   */
+  public <T> Future<T> read(Function<PostgresClient, Future<T>> operation) {
+    if (!isReplicaUsable()) {
+      return operation.apply(primary);
+    }
+
+    return operation.apply(replica).recover(cause -> {
+      if (!fallbackOn.test(cause)) {
+        return Future.failedFuture(cause);
+      }
+      LOGGER.warn("Read failed on the replica, repeating it on the primary", cause);
+      replicaDown = true;
+      return operation.apply(primary);
+    });
+  }
+
+  /**
+   * Runs the operation on the primary, for reads that must see the writes made just before.
+   */
+  public <T> Future<T> readFromPrimary(Function<PostgresClient, Future<T>> operation) {
+    return operation.apply(primary);
+  }
+
+  /**
+   * Returns the last measured replication lag in milliseconds, -1 if it has not been measured yet.
+   */
+  public long getLagMillis() {
+    return lagMillis;
+  }
+
+  boolean isReplicaUsable() {
+    checkLag();
+    long lag = lagMillis;
+    return !replicaDown && lag >= 0 && lag <= maxLagMillis;
+  }
+
+  private void checkLag() {
+    long now = System.nanoTime();
+    if (now - nextCheckNanos < 0 || !checking.compareAndSet(false, true)) {
+      return;
+    }
+
+    nextCheckNanos = now + lagCheckIntervalNanos;
+    replica.select(LAG_SQL, Tuple.tuple())
+      .map(rows -> ((Number) rows.iterator().next().getValue(0)).doubleValue())
+      .onSuccess(seconds -> {
+        lagMillis = Math.round(seconds * 1000);
+        replicaDown = false;
+      })
+      .onFailure(cause -> {
+        LOGGER.warn("Replication lag check failed, reading from the primary", cause);
+        replicaDown = true;
+      })
+      .onComplete(ar -> checking.set(false));
+  }
+
+  public static final class Builder {
+
+    private final PostgresClient primary;
+    private final PostgresClient replica;
+    private Duration maxLag = Duration.ofSeconds(5);
+    private Duration lagCheckInterval = Duration.ofSeconds(1);
+    private Predicate<Throwable> fallbackOn = DbExcUtils::isTransient;
+
+    private Builder(PostgresClient primary, PostgresClient replica) {
+      this.primary = Objects.requireNonNull(primary);
+      this.replica = Objects.requireNonNull(replica);
+    }
+
+    /**
+     * Highest replication lag at which reads still go to the replica, 5 seconds by default.
+     */
+    public Builder maxLag(Duration maxLag) {
+      Validate.isTrue(!maxLag.isNegative(), "Max lag must not be negative: %s", maxLag);
+      this.maxLag = maxLag;
+      return this;
+    }
+
+    /**
+     * Minimum time between two replication lag checks, 1 second by default.
+     */
+    public Builder lagCheckInterval(Duration lagCheckInterval) {
+      Validate.isTrue(!lagCheckInterval.isNegative(), "Lag check interval must not be negative: %s",
+        lagCheckInterval);
+      this.lagCheckInterval = lagCheckInterval;
+      return this;
+    }
+
+    /**
+     * Failures of the replica after which a read is repeated on the primary, connection failures and
+     * transient errors by default.
+     */
+    public Builder fallbackOn(Predicate<Throwable> fallbackOn) {
+      this.fallbackOn = Objects.requireNonNull(fallbackOn);
+      return this;
+    }
+
+    public ReadRoutingPolicy build() {
+      return new ReadRoutingPolicy(this);
+    }
+  }
+}
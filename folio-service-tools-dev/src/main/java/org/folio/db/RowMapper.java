@@ -0,0 +1,224 @@
+package org.folio.db;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.OffsetTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Maps rows to records or beans with method handles compiled once per class.
+ *
+ * <p>Column indexes are resolved once per {@link RowSet}, so rows are read by index instead of by name.
+ * A record gets the columns as arguments of its canonical constructor in the order of the columns,
+ * a bean gets each column through the setter of the property named as the column in camel case,
+ * {@code created_date} is set with {@code setCreatedDate}.
+ *
+ * <pre>{@code
+ * RowMapper<Item> mapper = RowMapper.builder(Item.class).columns("id", "barcode", "status").build();
+ * List<Item> items = mapper.mapAll(rowSet);
+ * }</pre>
+ */
+public final class RowMapper<T> {
+
+  private static final Set<Class<?>> TUPLE_TYPES = Set.of(Boolean.class, Short.class, Integer.class, Long.class,
+    Float.class, Double.class, BigDecimal.class, String.class, UUID.class, LocalDate.class, LocalTime.class,
+    LocalDateTime.class, OffsetTime.class, OffsetDateTime.class, JsonObject.class, JsonArray.class, Buffer.class);
+
+  private final String[] columns;
+  private final Class<?>[] types;
+  private final MethodHandle constructor;
+  private final MethodHandle[] setters;
+
+  private RowMapper(String[] columns, Class<?>[] types, MethodHandle constructor, MethodHandle[] setters) {
+    this.columns = columns;
+    this.types = types;
+    this.constructor = constructor;
+    this.setters = setters;
+  }
+
+  public static <T> Builder<T> builder(Class<T> type) {
+    return new Builder<>(type);
+  }
+
+  public List<T> mapAll(RowSet<Row> rowSet) {
+    Function<Row, T> mapper = forColumns(rowSet.columnsNames());
+
+    List<T> items = new ArrayList<>(rowSet.rowCount());
+    for (Row row : rowSet) {
+      items.add(mapper.apply(row));
+    }
+    return items;
+  }
+
+  /**
+   * Returns a function that maps rows with the given column names, for example rows of a {@link RowSet}
+   * mapped with {@link RowSetUtils#mapItems(RowSet, Function)}.
+   */
+  public Function<Row, T> forColumns(List<String> columnNames) {
+    int[] indexes = new int[columns.length];
+    for (int i = 0; i < columns.length; i++) {
+      indexes[i] = columnNames.indexOf(columns[i]);
+      if (indexes[i] < 0) {
+        throw new IllegalArgumentException("Column " + columns[i] + " is not found in " + columnNames);
+      }
+    }
+
+    return setters == null ? row -> construct(row, indexes) : row -> populate(row, indexes);
+  }
+
+  @SuppressWarnings("unchecked")
+  private T construct(Row row, int[] indexes) {
+    Object[] args = new Object[indexes.length];
+    for (int i = 0; i < indexes.length; i++) {
+      args[i] = value(row, i, indexes[i]);
+    }
+
+    try {
+      return (T) (Object) constructor.invokeExact(args);
+    } catch (Throwable e) {
+      throw mappingException(e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T populate(Row row, int[] indexes) {
+    try {
+      Object bean = (Object) constructor.invokeExact();
+      for (int i = 0; i < indexes.length; i++) {
+        setters[i].invokeExact(bean, value(row, i, indexes[i]));
+      }
+      return (T) bean;
+    } catch (Throwable e) {
+      throw mappingException(e);
+    }
+  }
+
+  private Object value(Row row, int column, int index) {
+    Class<?> type = types[column];
+    return type == null ? row.getValue(index) : row.get(type, index);
+  }
+
+  private static RuntimeException mappingException(Throwable e) {
+    if (e instanceof RuntimeException runtimeException) {
+      return runtimeException;
+    }
+    if (e instanceof Error error) {
+      throw error;
+    }
+    return new IllegalStateException("Failed to map row", e);
+  }
+
+  public static final class Builder<T> {
+
+    private final Class<T> type;
+    private final List<String> columns = new ArrayList<>();
+
+    private Builder(Class<T> type) {
+      this.type = Objects.requireNonNull(type);
+    }
+
+    public Builder<T> columns(String... columns) {
+      this.columns.addAll(Arrays.asList(columns));
+      return this;
+    }
+
+    public RowMapper<T> build() {
+      Validate.notEmpty(columns, "Columns are not defined");
+
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        return type.isRecord() ? buildRecordMapper(lookup) : buildBeanMapper(lookup);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalArgumentException("Cannot map rows to " + type.getName(), e);
+      }
+    }
+
+    private RowMapper<T> buildRecordMapper(MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+      RecordComponent[] components = type.getRecordComponents();
+      Validate.isTrue(components.length == columns.size(),
+        "%s has %d components but %d columns are given", type.getName(), components.length, columns.size());
+
+      Class<?>[] parameterTypes = Arrays.stream(components).map(RecordComponent::getType).toArray(Class<?>[]::new);
+      MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class, parameterTypes))
+        .asSpreader(Object[].class, parameterTypes.length)
+        .asType(MethodType.methodType(Object.class, Object[].class));
+
+      return new RowMapper<>(columns.toArray(String[]::new), tupleTypes(parameterTypes), constructor, null);
+    }
+
+    private RowMapper<T> buildBeanMapper(MethodHandles.Lookup lookup) throws ReflectiveOperationException {
+      MethodHandle constructor = lookup.findConstructor(type, MethodType.methodType(void.class))
+        .asType(MethodType.methodType(Object.class));
+
+      Class<?>[] parameterTypes = new Class<?>[columns.size()];
+      MethodHandle[] setters = new MethodHandle[columns.size()];
+      for (int i = 0; i < columns.size(); i++) {
+        Method setter = findSetter(columns.get(i));
+        parameterTypes[i] = setter.getParameterTypes()[0];
+        setters[i] = lookup.unreflect(setter)
+          .asType(MethodType.methodType(void.class, Object.class, Object.class));
+      }
+
+      return new RowMapper<>(columns.toArray(String[]::new), tupleTypes(parameterTypes), constructor, setters);
+    }
+
+    private Method findSetter(String column) throws NoSuchMethodException {
+      String name = "set" + toCamelCase(column);
+      for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+        for (Method method : c.getDeclaredMethods()) {
+          if (method.getName().equalsIgnoreCase(name) && method.getParameterCount() == 1) {
+            return method;
+          }
+        }
+      }
+      throw new NoSuchMethodException("No setter for column " + column + " in " + type.getName());
+    }
+
+    private static String toCamelCase(String column) {
+      StringBuilder name = new StringBuilder(column.length());
+      boolean upper = true;
+      for (char c : column.toCharArray()) {
+        if (c == '_') {
+          upper = true;
+        } else {
+          name.append(upper ? Character.toUpperCase(c) : c);
+          upper = false;
+        }
+      }
+      return name.toString();
+    }
+
+    /**
+     * Types read with {@link Row#get(Class, int)}, null for the types whose values are taken as they are.
+     */
+    private static Class<?>[] tupleTypes(Class<?>[] parameterTypes) {
+      Class<?>[] tupleTypes = new Class<?>[parameterTypes.length];
+      for (int i = 0; i < parameterTypes.length; i++) {
+        Class<?> boxed = MethodType.methodType(parameterTypes[i]).wrap().returnType();
+        tupleTypes[i] = TUPLE_TYPES.contains(boxed) ? boxed : null;
+      }
+      return tupleTypes;
+    }
+  }
+}
@@ -0,0 +1,130 @@
+package org.folio.db;
+
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+
+/**
+ * {@link ReadStream} of items mapped from the rows of a cursor-backed {@link RowStream}.
+ *
+ * <p>Rows are mapped one at a time when they are delivered to the handler, and {@code pause}, {@code resume}
+ * and {@code fetch} are passed to the row stream, so no more than a fetch size of rows is held in memory.
+ * The {@code done} promise is completed when the stream ends and failed when it fails or is closed,
+ * the owner uses it to end the transaction the cursor lives in.
+ *
+ * <p>A consumer that stops before the end must {@link #close()} the stream to release the cursor and
+ * the connection.
+ */
+public final class RowMappingStream<T> implements ReadStream<T> {
+
+  private final RowStream<Row> rows;
+  private final Function<Row, T> mapper;
+  private final Promise<Void> done;
+
+  private Handler<Throwable> exceptionHandler;
+  private Handler<Void> endHandler;
+
+  RowMappingStream(RowStream<Row> rows, Function<Row, T> mapper, Promise<Void> done) {
+    this.rows = Objects.requireNonNull(rows);
+    this.mapper = Objects.requireNonNull(mapper);
+    this.done = Objects.requireNonNull(done);
+
+    rows.exceptionHandler(this::fail);
+    rows.endHandler(v -> {
+      done.tryComplete();
+      Handler<Void> handler = endHandler;
+      if (handler != null) {
+        handler.handle(null);
+      }
+    });
+  }
+
+  @Override
+  public RowMappingStream<T> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public RowMappingStream<T> handler(Handler<T> handler) {
+    if (handler == null) {
+      rows.handler(null);
+      return this;
+    }
+
+    rows.handler(row -> {
+      if (done.future().failed()) {
+        // rows still buffered after a mapping failure are dropped
+        return;
+      }
+
+      T item;
+      try {
+        item = mapper.apply(row);
+      } catch (Throwable e) {
+        rows.close();
+        fail(e);
+        return;
+      }
+      handler.handle(item);
+    });
+    return this;
+  }
+
+  @Override
+  public RowMappingStream<T> pause() {
+    rows.pause();
+    return this;
+  }
+
+  @Override
+  public RowMappingStream<T> resume() {
+    rows.resume();
+    return this;
+  }
+
+  @Override
+  public RowMappingStream<T> fetch(long amount) {
+    rows.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public RowMappingStream<T> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  /**
+   * Closes the cursor and rolls back the transaction it lives in, for a consumer that stops before the end.
+   * Rows still buffered are dropped and neither the end handler nor the exception handler is called.
+   * Does nothing if the stream has already ended or failed.
+   */
+  public Future<Void> close() {
+    if (done.future().isComplete()) {
+      return Future.succeededFuture();
+    }
+
+    Future<Void> closed = rows.close();
+    done.tryFail(new CancellationException("Stream closed before the end"));
+    return closed;
+  }
+
+  private void fail(Throwable cause) {
+    if (!done.tryFail(cause)) {
+      return;
+    }
+
+    Handler<Throwable> handler = exceptionHandler;
+    if (handler != null) {
+      handler.handle(cause);
+    }
+  }
+}
@@ -10,18 +10,37 @@ import java.util.Objects;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.function.Function;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
 import io.vertx.sqlclient.Row;
 import io.vertx.sqlclient.RowSet;
 import io.vertx.sqlclient.Tuple;
 import org.apache.commons.lang3.StringUtils;
 
+import org.folio.util.UuidUtils;
+
 public final class RowSetUtils {
 
+  public static final int PARALLEL_MAPPING_THRESHOLD = 1000;
+
+  // parallel mapping gets its own pool: a parallel stream started on a worker thread would run on the common
+  // pool and compete with everything else that uses it
+  private static final ForkJoinPool MAPPING_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors(),
+    pool -> {
+      ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+      thread.setName("folio-row-mapping-" + thread.getPoolIndex());
+      return thread;
+    }, null, false);
+
   private RowSetUtils() {
   }
 
@@ -32,6 +51,23 @@ public final class RowSetUtils {
     return StreamSupport.stream(spliterator, false);
   }
 
+  /**
+   * Returns a stream whose spliterator is {@code SIZED} and {@code SUBSIZED}, so it splits into balanced chunks
+   * when the stream is parallel. The rows are copied into an array first, as the row set can only be iterated.
+   */
+  public static Stream<Row> streamOf(RowSet<Row> rowSet, boolean parallel) {
+    Objects.requireNonNull(rowSet);
+
+    Row[] rows = new Row[rowSet.rowCount()];
+    int i = 0;
+    for (Row row : rowSet) {
+      rows[i++] = row;
+    }
+
+    Spliterator<Row> spliterator = Spliterators.spliterator(rows, 0, i, Spliterator.ORDERED | Spliterator.IMMUTABLE);
+    return StreamSupport.stream(spliterator, parallel);
+  }
+
   public static <T> List<T> mapItems(RowSet<Row> rowSet, Function<Row, T> mapper) {
     Objects.requireNonNull(rowSet);
 
@@ -40,6 +76,43 @@ public final class RowSetUtils {
       .toList();
   }
 
+  /**
+   * Maps rows with a {@link RowMapper}, which resolves the columns once for the whole row set.
+   */
+  public static <T> List<T> mapItems(RowSet<Row> rowSet, RowMapper<T> mapper) {
+    Objects.requireNonNull(rowSet);
+
+    return mapper.mapAll(rowSet);
+  }
+
+  /**
+   * Maps rows off the event loop, so it is not blocked by expensive mappers. Row sets of fewer than
+   * {@link #PARALLEL_MAPPING_THRESHOLD} rows are mapped on a worker thread, larger ones in parallel on a
+   * ForkJoin pool dedicated to row mapping, never on the common pool. The returned Future is completed on the
+   * context of the caller. The mapper must be thread safe, the result keeps the order of the rows.
+   */
+  public static <T> Future<List<T>> mapItemsParallel(Vertx vertx, RowSet<Row> rowSet, Function<Row, T> mapper) {
+    Objects.requireNonNull(rowSet);
+    Objects.requireNonNull(mapper);
+
+    if (rowSet.rowCount() < PARALLEL_MAPPING_THRESHOLD) {
+      return vertx.executeBlocking(() -> mapItems(rowSet, mapper), false);
+    }
+
+    Context context = vertx.getOrCreateContext();
+    Promise<List<T>> promise = Promise.promise();
+    // a parallel stream started on a thread of the pool runs its tasks in that pool
+    MAPPING_POOL.execute(() -> {
+      try {
+        List<T> items = streamOf(rowSet, true).map(mapper).toList();
+        context.runOnContext(v -> promise.complete(items));
+      } catch (Throwable e) {
+        context.runOnContext(v -> promise.fail(e));
+      }
+    });
+    return promise.future();
+  }
+
   public static Row firstItem(RowSet<Row> rowSet) {
     Objects.requireNonNull(rowSet);
     try {
@@ -65,7 +138,30 @@ public final class RowSetUtils {
   }
 
   public static UUID toUUID(String uuid) {
-    return StringUtils.isBlank(uuid) ? null : UUID.fromString(uuid);
+    if (StringUtils.isBlank(uuid)) {
+      return null;
+    }
+    // UUID.fromString also accepts non-canonical forms such as 1-1-1-1-1
+    return uuid.length() == UuidUtils.LENGTH ? UuidUtils.parse(uuid) : UUID.fromString(uuid);
+  }
+
+  /**
+   * Reads the column as a {@link UUID}. A {@code uuid} column is read as it is decoded by the client,
+   * a text column is parsed.
+   */
+  public static UUID getUUID(Row row, String column) {
+    Object value = row.getValue(column);
+    if (value == null || value instanceof UUID) {
+      return (UUID) value;
+    }
+    return toUUID(value.toString());
+  }
+
+  /**
+   * Reads the column of all rows as UUIDs, see {@link #getUUID(Row, String)}.
+   */
+  public static List<UUID> getUUIDs(RowSet<Row> rowSet, String column) {
+    return mapItems(rowSet, row -> getUUID(row, column));
   }
 
   public static Date toDate(OffsetDateTime date) {
@@ -0,0 +1,23 @@
+package org.folio.db;
+
+/**
+ * How {@link CqlQuery#get(String, int, int, TotalCountMode)} counts the records matching the query.
+ */
+public enum TotalCountMode {
+
+  /**
+   * Records are not counted, total records are null unless all records are loaded.
+   */
+  NONE,
+
+  /**
+   * RMB counts the records exactly for small results and takes the planner estimate otherwise.
+   */
+  ESTIMATED,
+
+  /**
+   * Records are counted exactly. Counts are cached for a short time per tenant, table and query condition,
+   * so the next pages of the same search don't count again.
+   */
+  EXACT
+}
@@ -0,0 +1,27 @@
+package org.folio.db.exc;
+
+/**
+ * Failure of a bulk write. The cause is the translated failure of the database,
+ * for example {@link ConstraintViolationException}.
+ */
+public class BulkWriteException extends DatabaseException {
+
+  private final int rowIndex;
+
+  public BulkWriteException(String message, DatabaseException cause, int rowIndex) {
+    super(message, cause, cause.getSqlState());
+    this.rowIndex = rowIndex;
+  }
+
+  /**
+   * Index of the failing row in the written list, -1 if the failure is not caused by a single row.
+   */
+  public int getRowIndex() {
+    return rowIndex;
+  }
+
+  @Override
+  public synchronized DatabaseException getCause() {
+    return (DatabaseException) super.getCause();
+  }
+}
@@ -1,7 +1,14 @@
 package org.folio.db.exc;
 
+import java.net.SocketException;
+import java.nio.channels.ClosedChannelException;
 import java.util.Objects;
 
+import io.vertx.pgclient.PgException;
+import io.vertx.sqlclient.ClosedConnectionException;
+
+import org.folio.db.exc.translation.postgresql.PSQLState;
+
 public final class DbExcUtils {
 
   private DbExcUtils() {
@@ -27,6 +34,39 @@ public final class DbExcUtils {
     return Objects.equals(getConstraintType(t), Constraint.Type.CHECK);
   }
 
+  /**
+   * Checks if the exception or any of its causes is a database error that can disappear if the operation
+   * is repeated, like a connection failure, a serialization failure or a deadlock. Connection failures
+   * of the client carry no SQL state, a closed connection or a socket error in the causes is transient too.
+   * Other I/O errors, such as a record that can't be parsed, are not.
+   */
+  public static boolean isTransient(Throwable t) {
+    for (Throwable current = t; current != null; current = current.getCause()) {
+      String sqlState = getSqlState(current);
+      if (sqlState != null) {
+        return PSQLState.isTransient(sqlState);
+      }
+      if (isConnectionFailure(current)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static boolean isConnectionFailure(Throwable t) {
+    return t instanceof ClosedConnectionException || t instanceof SocketException
+      || t instanceof ClosedChannelException;
+  }
+
+  private static String getSqlState(Throwable t) {
+    if (t instanceof DatabaseException databaseException) {
+      return databaseException.getSqlState();
+    } else if (t instanceof PgException pgException) {
+      return pgException.getSqlState();
+    }
+    return null;
+  }
+
   private static Constraint.Type getConstraintType(Throwable t) {
     return (t instanceof ConstraintViolationException constraintViolationException)
       ? constraintViolationException.getConstraintType()
@@ -4,7 +4,9 @@ import static java.util.stream.Collectors.toMap;
 import static org.apache.commons.lang3.StringUtils.defaultString;
 
 import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * <a href="https://www.postgresql.org/docs/current/errcodes-appendix.html">Error codes</a>
@@ -297,6 +299,23 @@ public enum PSQLState {
 
   private static final Map<String, PSQLState> CODES_TO_ENUMS;
 
+  // errors caused by the state of the server or the connection rather than by the statement itself,
+  // so the same statement can succeed if repeated
+  private static final Set<PSQLState> TRANSIENT_STATES = EnumSet.of(
+    CONNECTION_EXCEPTION,
+    CONNECTION_DOES_NOT_EXIST,
+    CONNECTION_FAILURE,
+    SQLCLIENT_UNABLE_TO_ESTABLISH_SQLCONNECTION,
+    SQLSERVER_REJECTED_ESTABLISHMENT_OF_SQLCONNECTION,
+    SERIALIZATION_FAILURE,
+    DEADLOCK_DETECTED,
+    TOO_MANY_CONNECTIONS,
+    LOCK_NOT_AVAILABLE,
+    ADMIN_SHUTDOWN,
+    CRASH_SHUTDOWN,
+    CANNOT_CONNECT_NOW
+  );
+
   static {
     CODES_TO_ENUMS = Arrays.stream(values()).collect(toMap(state -> normalizeCode(state.code), state -> state));
   }
@@ -323,6 +342,14 @@ public enum PSQLState {
     return normalizeCode(sqlStateCode).startsWith(getCodeClass());
   }
 
+  public boolean isTransient() {
+    return TRANSIENT_STATES.contains(this);
+  }
+
+  public static boolean isTransient(String code) {
+    return contains(code) && enumOf(code).isTransient();
+  }
+
   public static boolean contains(String code) {
     return CODES_TO_ENUMS.containsKey(normalizeCode(code));
   }
@@ -0,0 +1,129 @@
+package org.folio.db.metrics;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import org.apache.commons.lang3.Validate;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import org.folio.db.ParameterizedSql;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.util.BoundedCache;
+
+/**
+ * Measures the latency and row count of queries per table and {@link QueryShape} and reports them to a
+ * {@link QueryMetricsSink}.
+ *
+ * <p>A sample of the queries slower than the threshold is explained with {@code EXPLAIN (FORMAT JSON)}
+ * after the query has completed, the query is not delayed by it. A shape is explained by one query at a time.
+ */
+public final class QueryInstrumentation {
+
+  private static final Logger LOGGER = LogManager.getLogger(QueryInstrumentation.class);
+  private static final int SHAPE_CACHE_SIZE = 1000;
+
+  private final QueryMetricsSink sink;
+  private final long slowQueryThresholdNanos;
+  private final double explainSampleRate;
+  private final BoundedCache<String, String> shapes = new BoundedCache<>(SHAPE_CACHE_SIZE);
+  private final Set<String> explaining = ConcurrentHashMap.newKeySet();
+
+  private QueryInstrumentation(Builder builder) {
+    this.sink = builder.sink;
+    this.slowQueryThresholdNanos = builder.slowQueryThreshold.toNanos();
+    this.explainSampleRate = builder.explainSampleRate;
+  }
+
+  public static Builder builder(QueryMetricsSink sink) {
+    return new Builder(sink);
+  }
+
+  public QueryMetricsSink getSink() {
+    return sink;
+  }
+
+  /**
+   * Runs the query and records its latency and the row count that {@code rowCount} takes from the result.
+   *
+   * @param pg client to explain the query with if it is slow
+   * @param sql SQL the query sends, explained and reduced to the shape
+   */
+  public <R> Future<R> measure(PostgresClient pg, String table, ParameterizedSql sql, Supplier<Future<R>> query,
+                               ToIntFunction<R> rowCount) {
+    long start = System.nanoTime();
+    return query.get().onComplete(ar -> {
+      long latency = System.nanoTime() - start;
+      String shape = shapeOf(sql.sql());
+      sink.recordQuery(table, shape, latency, ar.succeeded() ? rowCount.applyAsInt(ar.result()) : -1);
+      if (latency >= slowQueryThresholdNanos && sampled() && explaining.add(shape)) {
+        explain(pg, table, shape, sql, latency);
+      }
+    });
+  }
+
+  String shapeOf(String sql) {
+    String shape = shapes.get(sql);
+    if (shape == null) {
+      shape = QueryShape.of(sql);
+      shapes.put(sql, shape);
+    }
+    return shape;
+  }
+
+  private boolean sampled() {
+    return explainSampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < explainSampleRate;
+  }
+
+  private void explain(PostgresClient pg, String table, String shape, ParameterizedSql sql, long latency) {
+    pg.select("EXPLAIN (FORMAT JSON) " + sql.sql(), sql.params())
+      .map(rows -> {
+        Object plan = rows.iterator().next().getValue(0);
+        return plan instanceof JsonArray json ? json : new JsonArray(plan.toString());
+      })
+      .onSuccess(plan -> sink.recordSlowQuery(new SlowQuery(table, shape, sql.sql(), latency, plan)))
+      .onFailure(e -> LOGGER.warn("Failed to explain slow query: {}", sql.sql(), e))
+      .onComplete(ar -> explaining.remove(shape));
+  }
+
+  public static final class Builder {
+
+    private final QueryMetricsSink sink;
+    private Duration slowQueryThreshold = Duration.ofMillis(500);
+    private double explainSampleRate = 0.1;
+
+    private Builder(QueryMetricsSink sink) {
+      this.sink = Objects.requireNonNull(sink);
+    }
+
+    /**
+     * Queries that take at least this long are slow queries, 500 ms by default.
+     */
+    public Builder slowQueryThreshold(Duration slowQueryThreshold) {
+      Validate.isTrue(!slowQueryThreshold.isNegative(), "Slow query threshold must not be negative");
+      this.slowQueryThreshold = slowQueryThreshold;
+      return this;
+    }
+
+    /**
+     * Part of the slow queries that are explained, from 0 for none to 1 for all, 0.1 by default.
+     */
+    public Builder explainSampleRate(double explainSampleRate) {
+      Validate.inclusiveBetween(0.0, 1.0, explainSampleRate, "Sample rate must be between 0 and 1: %s",
+        explainSampleRate);
+      this.explainSampleRate = explainSampleRate;
+      return this;
+    }
+
+    public QueryInstrumentation build() {
+      return new QueryInstrumentation(this);
+    }
+  }
+}
@@ -0,0 +1,22 @@
+package org.folio.db.metrics;
+
+/**
+ * Receives the measurements of {@link QueryInstrumentation}, for example to publish them to a metrics registry.
+ * Methods are called on the event loop that completed the query and must not block.
+ */
+public interface QueryMetricsSink {
+
+  /**
+   * @param table table the query reads
+   * @param shape query reduced by {@link QueryShape}
+   * @param latencyNanos time from sending the query to receiving the result
+   * @param rowCount number of rows returned, -1 if the query failed
+   */
+  void recordQuery(String table, String shape, long latencyNanos, int rowCount);
+
+  /**
+   * Receives a query that took longer than the threshold together with its plan.
+   */
+  default void recordSlowQuery(SlowQuery slowQuery) {
+  }
+}
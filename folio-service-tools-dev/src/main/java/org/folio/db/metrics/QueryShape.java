@@ -0,0 +1,76 @@
+package org.folio.db.metrics;
+
+import java.util.regex.Pattern;
+
+/**
+ * Reduces SQL to the shape of the query: string literals, numbers and bind parameters become {@code ?}
+ * and lists of them a single {@code ?}, so all queries that differ only in their values have the same shape.
+ * Quoted identifiers and the keys of jsonb paths, the literals after {@code ->}, {@code ->>}, {@code #>}
+ * and {@code #>>}, are part of the shape.
+ */
+public final class QueryShape {
+
+  private static final Pattern PARAMETER = Pattern.compile("\\$\\d+");
+  private static final Pattern NUMBER = Pattern.compile("(?<![\\w.$])-?\\d+(\\.\\d+)?\\b");
+  private static final Pattern PARAMETER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private QueryShape() {
+  }
+
+  public static String of(String sql) {
+    String shape = stripValues(sql);
+    shape = PARAMETER_LIST.matcher(shape).replaceAll("?");
+    return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+  }
+
+  /**
+   * Replaces string literals other than jsonb path keys, numbers and bind parameters with {@code ?},
+   * quoted identifiers and path keys are copied as they are.
+   */
+  private static String stripValues(String sql) {
+    StringBuilder result = new StringBuilder(sql.length());
+    int start = 0;
+    int i = 0;
+    while (i < sql.length()) {
+      char c = sql.charAt(i);
+      if (c != '\'' && c != '"') {
+        i++;
+        continue;
+      }
+
+      result.append(stripNumbers(sql.substring(start, i)));
+      int end = sql.indexOf(c, i + 1);
+      while (end != -1 && end + 1 < sql.length() && sql.charAt(end + 1) == c) {
+        end = sql.indexOf(c, end + 2);
+      }
+      end = end == -1 ? sql.length() - 1 : end;
+      if (c == '"' || isPathKey(result)) {
+        result.append(sql, i, end + 1);
+      } else {
+        result.append('?');
+      }
+      start = end + 1;
+      i = start;
+    }
+    return result.append(stripNumbers(sql.substring(start))).toString();
+  }
+
+  private static String stripNumbers(String sql) {
+    String stripped = PARAMETER.matcher(sql).replaceAll("?");
+    return NUMBER.matcher(stripped).replaceAll("?");
+  }
+
+  /**
+   * Returns whether the SQL before a literal ends with a jsonb path operator.
+   */
+  private static boolean isPathKey(CharSequence before) {
+    int end = before.length();
+    while (end > 0 && Character.isWhitespace(before.charAt(end - 1))) {
+      end--;
+    }
+    String operator = before.subSequence(Math.max(0, end - 3), end).toString();
+    return operator.endsWith("->") || operator.endsWith("->>")
+      || operator.endsWith("#>") || operator.endsWith("#>>");
+  }
+}
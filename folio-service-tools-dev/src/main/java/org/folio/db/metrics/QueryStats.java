@@ -0,0 +1,107 @@
+package org.folio.db.metrics;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * {@link QueryMetricsSink} that keeps a latency histogram and row counts per table and query shape
+ * and the most recent slow queries in memory, to be read by an admin endpoint or logged periodically.
+ */
+public class QueryStats implements QueryMetricsSink {
+
+  public static final int DEFAULT_SLOW_QUERY_LIMIT = 100;
+
+  private final Map<ShapeKey, ShapeMetrics> shapes = new ConcurrentHashMap<>();
+  private final Deque<SlowQuery> slowQueries = new ArrayDeque<>();
+  private final int slowQueryLimit;
+
+  public QueryStats() {
+    this(DEFAULT_SLOW_QUERY_LIMIT);
+  }
+
+  /**
+   * @param slowQueryLimit number of slow queries kept, older ones are dropped
+   */
+  public QueryStats(int slowQueryLimit) {
+    Validate.isTrue(slowQueryLimit > 0, "Slow query limit must be positive: %d", slowQueryLimit);
+    this.slowQueryLimit = slowQueryLimit;
+  }
+
+  @Override
+  public void recordQuery(String table, String shape, long latencyNanos, int rowCount) {
+    ShapeMetrics metrics = shapes.computeIfAbsent(new ShapeKey(table, shape), key -> new ShapeMetrics());
+    metrics.latency.record(latencyNanos);
+    if (rowCount < 0) {
+      metrics.failures.increment();
+    } else {
+      metrics.rows.add(rowCount);
+    }
+  }
+
+  @Override
+  public void recordSlowQuery(SlowQuery slowQuery) {
+    synchronized (slowQueries) {
+      if (slowQueries.size() == slowQueryLimit) {
+        slowQueries.removeFirst();
+      }
+      slowQueries.addLast(slowQuery);
+    }
+  }
+
+  /**
+   * Returns the statistics of all query shapes, the shapes with the highest total time first.
+   */
+  public List<ShapeStats> getShapeStats() {
+    List<ShapeStats> stats = new ArrayList<>(shapes.size());
+    shapes.forEach((key, metrics) -> stats.add(metrics.toStats(key)));
+    stats.sort(Comparator.comparingLong(ShapeStats::totalNanos).reversed());
+    return stats;
+  }
+
+  /**
+   * Returns the most recent slow queries, the oldest first.
+   */
+  public List<SlowQuery> getSlowQueries() {
+    synchronized (slowQueries) {
+      return List.copyOf(slowQueries);
+    }
+  }
+
+  public void reset() {
+    shapes.clear();
+    synchronized (slowQueries) {
+      slowQueries.clear();
+    }
+  }
+
+  /**
+   * Statistics of a query shape, latencies in nanoseconds.
+   */
+  public record ShapeStats(String table, String shape, long count, long failures, long rows, long totalNanos,
+                           long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+  }
+
+  private record ShapeKey(String table, String shape) {
+  }
+
+  private static final class ShapeMetrics {
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private ShapeStats toStats(ShapeKey key) {
+      return new ShapeStats(key.table(), key.shape(), latency.getCount(), failures.sum(), rows.sum(),
+        latency.getTotalNanos(), latency.getValueAtPercentile(50), latency.getValueAtPercentile(95),
+        latency.getValueAtPercentile(99), latency.getMaxNanos());
+    }
+  }
+}
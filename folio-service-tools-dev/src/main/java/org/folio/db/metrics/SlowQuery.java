@@ -0,0 +1,12 @@
+package org.folio.db.metrics;
+
+import io.vertx.core.json.JsonArray;
+
+/**
+ * Query that took longer than the threshold of {@link QueryInstrumentation}.
+ *
+ * @param sql SQL of the query with bind parameters, the values are not kept
+ * @param plan result of {@code EXPLAIN (FORMAT JSON)} for the query
+ */
+public record SlowQuery(String table, String shape, String sql, long latencyNanos, JsonArray plan) {
+}
@@ -8,6 +8,7 @@ import javax.ws.rs.core.Response;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHeaders;
 import org.apache.http.entity.ContentType;
@@ -33,6 +34,17 @@ public class ResponseHelper {
       .build();
   }
 
+  /**
+   * Creates a response with a JSON body that is already serialized,
+   * for example by {@link org.folio.db.CqlQuery#getJsonCollection}.
+   */
+  public static Response statusWithRawJson(int status, Buffer json) {
+    return Response.status(status)
+      .header(HttpHeaders.CONTENT_TYPE, ContentType.APPLICATION_JSON)
+      .entity(json.getBytes())
+      .build();
+  }
+
   public static <T> void respond(Future<T> result, Function<T, Response> mapper,
                                  Handler<AsyncResult<Response>> asyncResultHandler,
                                  PartialFunction<Throwable, Response> exceptionHandler) {
@@ -0,0 +1,171 @@
+package org.folio.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Gathers {@link #load(Object)} calls into batches, so records requested one key at a time
+ * are fetched with a single query.
+ *
+ * <p>A batch is dispatched on the next tick of the event loop, when the maximum delay has passed
+ * or as soon as it reaches the maximum size. Duplicate keys are folded, and each key is loaded
+ * once per loader instance, so a loader is meant to live for the duration of a single request.
+ * A loader is not thread safe: it must be created on a Vert.x context and used only from that context,
+ * calls from another thread fail with {@link IllegalStateException}.
+ *
+ * <pre>{@code
+ * BatchLoader<UUID, Item> loader = new BatchLoader<>(vertx, ids -> pg
+ *   .select("SELECT id, jsonb FROM items WHERE id = ANY($1)", DbUtils.createUuidArrayParam(ids))
+ *   .map(rows -> RowSetUtils.streamOf(rows).collect(toMap(row -> row.getUUID("id"), ItemMapper::map))));
+ * }</pre>
+ */
+public class BatchLoader<K, V> {
+
+  public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+  private final Vertx vertx;
+  private final Context context;
+  private final Function<List<K>, Future<Map<K, V>>> batchFunction;
+  private final int maxBatchSize;
+  private final long maxDelayMillis;
+
+  private final Map<K, Future<V>> cache = new HashMap<>();
+  private Map<K, Promise<V>> pending = new LinkedHashMap<>();
+  private long timerId = -1;
+  private boolean scheduled;
+
+  /**
+   * Creates a loader that dispatches batches of up to {@link #DEFAULT_MAX_BATCH_SIZE} keys on the next tick.
+   */
+  public BatchLoader(Vertx vertx, Function<List<K>, Future<Map<K, V>>> batchFunction) {
+    this(vertx, DEFAULT_MAX_BATCH_SIZE, Duration.ZERO, batchFunction);
+  }
+
+  /**
+   * @param batchFunction loads values for the list of distinct keys, keys missing in the result are loaded as null
+   * @throws IllegalStateException if not called on a Vert.x context
+   */
+  public BatchLoader(Vertx vertx, int maxBatchSize, Duration maxDelay,
+                     Function<List<K>, Future<Map<K, V>>> batchFunction) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+    }
+    this.vertx = Objects.requireNonNull(vertx);
+    this.context = Vertx.currentContext();
+    if (context == null) {
+      throw new IllegalStateException("BatchLoader must be created on a Vert.x context");
+    }
+    this.batchFunction = Objects.requireNonNull(batchFunction);
+    this.maxBatchSize = maxBatchSize;
+    this.maxDelayMillis = maxDelay.toMillis();
+  }
+
+  public Future<V> load(K key) {
+    Objects.requireNonNull(key);
+    if (Vertx.currentContext() != context) {
+      throw new IllegalStateException("BatchLoader must be used from the context it has been created on");
+    }
+
+    Future<V> cached = cache.get(key);
+    if (cached != null) {
+      return cached;
+    }
+
+    Promise<V> promise = Promise.promise();
+    cache.put(key, promise.future());
+    pending.put(key, promise);
+
+    if (pending.size() >= maxBatchSize) {
+      dispatch();
+    } else if (!scheduled) {
+      schedule();
+    }
+
+    return promise.future();
+  }
+
+  /**
+   * Loads values of all keys, the returned list keeps the order of the keys.
+   */
+  public Future<List<V>> loadMany(Collection<K> keys) {
+    List<Future<V>> futures = keys.stream().map(this::load).toList();
+
+    return Future.all(futures).map(v -> futures.stream().map(Future::result).toList());
+  }
+
+  /**
+   * Dispatches the pending keys immediately.
+   */
+  public void dispatch() {
+    if (scheduled) {
+      scheduled = false;
+      if (timerId != -1) {
+        vertx.cancelTimer(timerId);
+        timerId = -1;
+      }
+    }
+
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    Map<K, Promise<V>> batch = pending;
+    pending = new LinkedHashMap<>();
+
+    Future<Map<K, V>> result;
+    try {
+      result = batchFunction.apply(new ArrayList<>(batch.keySet()));
+    } catch (Throwable e) {
+      result = Future.failedFuture(e);
+    }
+
+    result.onComplete(ar -> {
+      if (ar.succeeded()) {
+        Map<K, V> values = ar.result() == null ? Map.of() : ar.result();
+        batch.forEach((key, promise) -> promise.complete(values.get(key)));
+      } else {
+        batch.forEach((key, promise) -> {
+          // failed keys are not cached, so they can be loaded again
+          cache.remove(key);
+          promise.fail(ar.cause());
+        });
+      }
+    });
+  }
+
+  public void clear(K key) {
+    cache.remove(key);
+  }
+
+  public void clearAll() {
+    cache.clear();
+  }
+
+  private void schedule() {
+    scheduled = true;
+    if (maxDelayMillis <= 0) {
+      context.runOnContext(v -> {
+        if (scheduled) {
+          dispatch();
+        }
+      });
+    } else {
+      timerId = vertx.setTimer(maxDelayMillis, id -> {
+        timerId = -1;
+        dispatch();
+      });
+    }
+  }
+}
@@ -0,0 +1,123 @@
+package org.folio.util;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Thread safe cache that evicts the least recently used entry when it is full,
+ * and optionally drops entries older than a time to live.
+ *
+ * <p>Lookups are counted as hits and misses, an expired entry is a miss.
+ */
+public final class BoundedCache<K, V> {
+
+  private final int maxSize;
+  private final long ttlNanos;
+  private final Map<K, Entry<V>> entries;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Creates a cache whose entries don't expire.
+   */
+  public BoundedCache(int maxSize) {
+    this(maxSize, null);
+  }
+
+  /**
+   * @param ttl time to live of an entry, null if entries don't expire
+   */
+  public BoundedCache(int maxSize, Duration ttl) {
+    Validate.isTrue(maxSize > 0, "Max size must be positive: %d", maxSize);
+    Validate.isTrue(ttl == null || ttl.compareTo(Duration.ZERO) > 0, "Time to live must be positive: %s", ttl);
+
+    this.maxSize = maxSize;
+    this.ttlNanos = ttl == null ? 0 : ttl.toNanos();
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+        return size() > BoundedCache.this.maxSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the cached value or null if there is no value or it has expired.
+   */
+  public V get(K key) {
+    Entry<V> entry;
+    synchronized (entries) {
+      entry = entries.get(key);
+      if (entry != null && entry.isExpired(System.nanoTime())) {
+        entries.remove(key);
+        entry = null;
+      }
+    }
+
+    if (entry == null) {
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    return entry.value();
+  }
+
+  public void put(K key, V value) {
+    Objects.requireNonNull(key);
+    Objects.requireNonNull(value);
+
+    Entry<V> entry = new Entry<>(value, ttlNanos == 0 ? Long.MAX_VALUE : System.nanoTime() + ttlNanos);
+    synchronized (entries) {
+      entries.put(key, entry);
+    }
+  }
+
+  public void invalidate(K key) {
+    synchronized (entries) {
+      entries.remove(key);
+    }
+  }
+
+  public void invalidateIf(Predicate<? super K> predicate) {
+    synchronized (entries) {
+      entries.keySet().removeIf(predicate);
+    }
+  }
+
+  public void invalidateAll() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getHits() {
+    return hits.sum();
+  }
+
+  public long getMisses() {
+    return misses.sum();
+  }
+
+  private record Entry<V>(V value, long expiresAt) {
+
+    boolean isExpired(long now) {
+      return expiresAt != Long.MAX_VALUE && now - expiresAt >= 0;
+    }
+  }
+}
@@ -0,0 +1,135 @@
+package org.folio.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Runs an asynchronous operation for each item of a collection keeping at most {@code maxInFlight}
+ * operations running at the same time. Results are stored by item index, so the order of the collection is kept.
+ *
+ * <p>Operations that complete synchronously do not grow the stack: the next launch is drained in a loop
+ * by the thread that is already launching.
+ */
+final class BoundedTraversal<T, R> {
+
+  private static final Object FAILED = new Object();
+
+  private final Object[] items;
+  private final Object[] results;
+  private final Launcher<T, R> launcher;
+  private final Consumer<Throwable> exceptionHandler;
+  private final BiConsumer<List<R>, Throwable> onDone;
+
+  private final AtomicInteger nextIndex = new AtomicInteger();
+  private final AtomicInteger completed = new AtomicInteger();
+  private final AtomicInteger pendingLaunches = new AtomicInteger();
+  private final AtomicBoolean done = new AtomicBoolean();
+
+  /**
+   * Starts an asynchronous operation for the given item and reports its outcome to the callback:
+   * either a result or a non-null failure.
+   */
+  @FunctionalInterface
+  interface Launcher<T, R> {
+
+    void launch(T item, BiConsumer<R, Throwable> callback);
+  }
+
+  /**
+   * @param exceptionHandler if {@code null} the traversal fails fast on the first failure,
+   *                         otherwise failures are passed to the handler and only successful results are collected
+   */
+  private BoundedTraversal(Collection<? extends T> items, Launcher<T, R> launcher,
+                           Consumer<Throwable> exceptionHandler, BiConsumer<List<R>, Throwable> onDone) {
+    this.items = items.toArray();
+    this.results = new Object[this.items.length];
+    this.launcher = launcher;
+    this.exceptionHandler = exceptionHandler;
+    this.onDone = onDone;
+  }
+
+  static <T, R> void run(Collection<? extends T> items, int maxInFlight, Launcher<T, R> launcher,
+                         Consumer<Throwable> exceptionHandler, BiConsumer<List<R>, Throwable> onDone) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("Max in-flight operations must be positive: " + maxInFlight);
+    }
+
+    BoundedTraversal<T, R> traversal = new BoundedTraversal<>(items, launcher, exceptionHandler, onDone);
+
+    if (traversal.items.length == 0) {
+      traversal.finish();
+      return;
+    }
+
+    traversal.launch(Math.min(maxInFlight, traversal.items.length));
+  }
+
+  private void launch(int count) {
+    if (pendingLaunches.getAndAdd(count) != 0) {
+      // another thread (or an outer frame of this one) is draining launches already
+      return;
+    }
+
+    int missed = count;
+    do {
+      for (int i = 0; i < missed; i++) {
+        launchNext();
+      }
+      missed = pendingLaunches.addAndGet(-missed);
+    } while (missed != 0);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void launchNext() {
+    int index = nextIndex.getAndIncrement();
+    if (index >= items.length || done.get()) {
+      return;
+    }
+
+    try {
+      launcher.launch((T) items[index], (result, throwable) -> onComplete(index, result, throwable));
+    } catch (Throwable e) {
+      onComplete(index, null, e);
+    }
+  }
+
+  private void onComplete(int index, R result, Throwable throwable) {
+    if (throwable == null) {
+      results[index] = result;
+    } else if (exceptionHandler == null) {
+      if (done.compareAndSet(false, true)) {
+        onDone.accept(null, throwable);
+      }
+      return;
+    } else {
+      results[index] = FAILED;
+      exceptionHandler.accept(throwable);
+    }
+
+    if (completed.incrementAndGet() == items.length) {
+      finish();
+    } else {
+      launch(1);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void finish() {
+    if (!done.compareAndSet(false, true)) {
+      return;
+    }
+
+    List<R> list = new ArrayList<>(results.length);
+    for (Object result : results) {
+      if (result != FAILED) {
+        list.add((R) result);
+      }
+    }
+    onDone.accept(list, null);
+  }
+}
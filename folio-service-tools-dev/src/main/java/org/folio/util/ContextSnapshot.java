@@ -0,0 +1,75 @@
+package org.folio.util;
+
+import java.util.Map;
+
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import org.apache.logging.log4j.ThreadContext;
+
+/**
+ * Vert.x context and log4j ThreadContext (MDC) captured on the calling thread,
+ * used to resume callbacks that complete on other threads.
+ *
+ * <p>Capturing is allocation free when there is neither a Vert.x context nor a ThreadContext,
+ * and {@link #run(Runnable)} hops to the captured context only if the callback completes elsewhere.
+ * Only event loop contexts are captured: a worker context runs its tasks one by one, so hopping back to it
+ * would deadlock a worker that blocks waiting for the callback.
+ */
+final class ContextSnapshot {
+
+  private static final ContextSnapshot EMPTY = new ContextSnapshot(null, Map.of());
+
+  private final Context context;
+  private final Map<String, String> threadContext;
+
+  private ContextSnapshot(Context context, Map<String, String> threadContext) {
+    this.context = context;
+    this.threadContext = threadContext;
+  }
+
+  static ContextSnapshot capture() {
+    Context current = Vertx.currentContext();
+    Context context = current != null && current.isEventLoopContext() ? current : null;
+    boolean noThreadContext = ThreadContext.isEmpty();
+
+    if (context == null && noThreadContext) {
+      return EMPTY;
+    }
+    return new ContextSnapshot(context, noThreadContext ? Map.of() : ThreadContext.getImmutableContext());
+  }
+
+  /**
+   * Runs the action on the captured Vert.x context: directly if the current thread is already on it,
+   * otherwise with {@link Context#runOnContext}. Without a captured Vert.x context the action runs on
+   * the current thread with the captured ThreadContext.
+   */
+  void run(Runnable action) {
+    if (context == null) {
+      runWithThreadContext(action);
+    } else if (Vertx.currentContext() == context) {
+      action.run();
+    } else {
+      context.runOnContext(v -> runWithThreadContext(action));
+    }
+  }
+
+  /**
+   * Runs the action on the current thread with the captured ThreadContext,
+   * the ThreadContext of the thread is restored afterwards.
+   */
+  void runWithThreadContext(Runnable action) {
+    if (threadContext.isEmpty()) {
+      action.run();
+      return;
+    }
+
+    Map<String, String> previous = ThreadContext.isEmpty() ? Map.of() : ThreadContext.getImmutableContext();
+    ThreadContext.putAll(threadContext);
+    try {
+      action.run();
+    } finally {
+      ThreadContext.clearMap();
+      ThreadContext.putAll(previous);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package org.folio.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Groups asynchronous operations forked for a single task, so they succeed or fail as a whole.
+ *
+ * <p>The first failure of a child fails the scope: children that are still running are cancelled
+ * and no new children are started. A {@link CompletableFuture} child is cancelled with
+ * {@link CompletableFuture#cancel(boolean)}. The Future returned for a Vert.x child fails with
+ * {@link CancellationException} while the result of the underlying operation is ignored.
+ * The same happens when the scope-wide deadline passes, when the scope is cancelled and when it is closed
+ * before it is joined, for example because the block that forks the children has thrown an exception.
+ * Closing a joined scope doesn't affect it: the children keep running until the join completes,
+ * so the scope can be returned from a try-with-resources block as below.
+ *
+ * <pre>{@code
+ * try (FutureScope scope = new FutureScope(vertx, Duration.ofSeconds(5))) {
+ *   Future<User> user = scope.fork(() -> usersClient.get(userId));
+ *   Future<Item> item = scope.fork(() -> itemRepository.get(itemId));
+ *   return scope.join().map(v -> new Loan(user.result(), item.result()));
+ * }
+ * }</pre>
+ */
+public final class FutureScope implements AutoCloseable {
+
+  private final Map<Object, Consumer<Throwable>> children = new ConcurrentHashMap<>();
+  private final AtomicInteger running = new AtomicInteger();
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private final Promise<Void> completion = Promise.promise();
+  private final Vertx vertx;
+  private final long timerId;
+  private volatile boolean joined;
+
+  /**
+   * Creates a scope without a deadline.
+   */
+  public FutureScope() {
+    this.vertx = null;
+    this.timerId = -1;
+  }
+
+  /**
+   * Creates a scope that fails with {@link TimeoutException} if it is not completed within the deadline.
+   */
+  public FutureScope(Vertx vertx, Duration deadline) {
+    this.vertx = Objects.requireNonNull(vertx);
+    this.timerId = vertx.setTimer(Math.max(1, deadline.toMillis()),
+      id -> fail(new TimeoutException("Scope is not completed within " + deadline)));
+  }
+
+  /**
+   * Starts the task as a child of the scope. If the scope has failed already the task is not started
+   * and the returned Future fails with {@link CancellationException}.
+   */
+  public <T> Future<T> fork(Supplier<Future<T>> task) {
+    Promise<T> promise = Promise.promise();
+
+    if (!register(promise, promise::tryFail)) {
+      return promise.future();
+    }
+
+    Future<T> future;
+    try {
+      future = task.get();
+    } catch (Throwable e) {
+      future = Future.failedFuture(e);
+    }
+
+    future.onComplete(ar -> {
+      if (ar.succeeded()) {
+        promise.tryComplete(ar.result());
+      } else {
+        promise.tryFail(ar.cause());
+      }
+      childCompleted(promise, ar.cause());
+    });
+
+    return promise.future();
+  }
+
+  /**
+   * CompletableFuture counterpart of {@link #fork(Supplier)}.
+   */
+  public <T> CompletableFuture<T> forkCompletable(Supplier<CompletableFuture<T>> task) {
+    CompletableFuture<T> future = new CompletableFuture<>();
+
+    if (!register(future, cause -> future.cancel(true))) {
+      return future;
+    }
+
+    CompletableFuture<T> taskFuture;
+    try {
+      taskFuture = task.get();
+    } catch (Throwable e) {
+      taskFuture = FutureUtils.failedFuture(e);
+    }
+
+    // cancellation of the returned future is propagated to the task
+    CompletableFuture<T> started = taskFuture;
+    future.whenComplete((result, throwable) -> {
+      if (future.isCancelled()) {
+        started.cancel(true);
+      }
+    });
+
+    started.whenComplete((result, throwable) -> {
+      if (throwable == null) {
+        future.complete(result);
+      } else {
+        future.completeExceptionally(throwable);
+      }
+      childCompleted(future, throwable);
+    });
+
+    return future;
+  }
+
+  /**
+   * Returns a Future that is completed when all children have succeeded, or failed with the first failure
+   * of the scope. Children can't be forked after the scope is joined and completed.
+   */
+  public Future<Void> join() {
+    joined = true;
+    if (running.get() == 0) {
+      complete();
+    }
+    return completion.future();
+  }
+
+  public boolean isFailed() {
+    return failure.get() != null;
+  }
+
+  /**
+   * Cancels all children that are still running and fails the scope with {@link CancellationException}.
+   */
+  public void cancel() {
+    fail(new CancellationException("Scope is cancelled"));
+  }
+
+  /**
+   * Cancels the children that are still running if the scope has not been joined, otherwise does nothing
+   * and the join completes as the children complete. No children can be forked after the scope is closed.
+   */
+  @Override
+  public void close() {
+    if (!joined) {
+      fail(new CancellationException("Scope is closed before it is joined"));
+    }
+  }
+
+  private boolean register(Object child, Consumer<Throwable> canceller) {
+    Throwable cause = failure.get();
+    if (cause == null) {
+      running.incrementAndGet();
+      children.put(child, canceller);
+
+      // the scope could fail before the child was registered, so it wouldn't be cancelled otherwise
+      cause = failure.get();
+      if (cause == null) {
+        return true;
+      }
+      children.remove(child);
+      running.decrementAndGet();
+    }
+
+    canceller.accept(cancellation(cause));
+    return false;
+  }
+
+  private void childCompleted(Object child, Throwable cause) {
+    children.remove(child);
+    if (cause != null) {
+      fail(cause);
+    }
+    if (running.decrementAndGet() == 0 && joined) {
+      complete();
+    }
+  }
+
+  private void complete() {
+    if (failure.get() == null && completion.tryComplete()) {
+      cancelTimer();
+    }
+  }
+
+  private void fail(Throwable cause) {
+    if (!failure.compareAndSet(null, cause)) {
+      return;
+    }
+
+    cancelTimer();
+    completion.tryFail(cause);
+
+    CancellationException cancellation = cancellation(cause);
+    children.values().forEach(canceller -> canceller.accept(cancellation));
+  }
+
+  private void cancelTimer() {
+    if (vertx != null) {
+      vertx.cancelTimer(timerId);
+    }
+  }
+
+  private static CancellationException cancellation(Throwable cause) {
+    if (cause instanceof CancellationException cancellationException) {
+      return cancellationException;
+    }
+
+    CancellationException cancellation = new CancellationException("Scope has failed: " + cause.getMessage());
+    cancellation.initCause(cause);
+    return cancellation;
+  }
+}
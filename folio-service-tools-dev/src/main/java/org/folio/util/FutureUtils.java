@@ -1,67 +1,105 @@
 package org.folio.util;
 
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.Supplier;
 import org.apache.commons.lang3.reflect.ConstructorUtils;
+import org.apache.logging.log4j.ThreadContext;
 
 public final class FutureUtils {
 
+  private static final ExecutorService VIRTUAL_THREAD_EXECUTOR =
+    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("folio-virtual-", 0).factory());
+
+  // constructors of wrapper exceptions are resolved once per class
+  private static final ClassValue<Function<Throwable, Throwable>> EXCEPTION_WRAPPERS = new ClassValue<>() {
+    @Override
+    protected Function<Throwable, Throwable> computeValue(Class<?> wrapperExcClass) {
+      return exceptionWrapper(wrapperExcClass);
+    }
+  };
+
   private FutureUtils() {
   }
 
   public static <T> Future<T> wrapExceptions(Future<T> future, Class<? extends Throwable> wrapperExcClass) {
+    return wrapExceptions(future, EXCEPTION_WRAPPERS.get(wrapperExcClass));
+  }
+
+  public static <T> Future<T> wrapExceptions(Future<T> future, Function<Throwable, ? extends Throwable> wrapper) {
     Promise<T> result = Promise.promise();
 
     future.onComplete(ar -> {
       if (ar.succeeded()) {
         result.complete(ar.result());
       } else {
-
-        Throwable exc;
-
-        if (wrapperExcClass.isInstance(ar.cause())) {
-          exc = ar.cause();
-        } else {
-          try {
-            exc = ConstructorUtils.invokeConstructor(wrapperExcClass, ar.cause());
-          } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
-                   | InvocationTargetException e) {
-            exc = e;
-          }
-        }
-
-        result.fail(exc);
+        result.fail(wrapper.apply(ar.cause()));
       }
     });
 
     return result.future();
   }
 
+  /**
+   * Converts Vert.x Future to CompletableFuture. The CompletableFuture is completed on the thread that completes
+   * the Vert.x Future, with the log4j ThreadContext of the caller.
+   */
   public static <T> CompletableFuture<T> mapVertxFuture(Future<T> future) {
+    ContextSnapshot snapshot = ContextSnapshot.capture();
     CompletableFuture<T> completableFuture = new CompletableFuture<>();
 
-    future
-      .map(completableFuture::complete)
-      .otherwise(completableFuture::completeExceptionally);
+    future.onComplete(ar -> snapshot.runWithThreadContext(() -> {
+      if (ar.succeeded()) {
+        completableFuture.complete(ar.result());
+      } else {
+        completableFuture.completeExceptionally(ar.cause());
+      }
+    }));
 
     return completableFuture;
   }
 
+  /**
+   * Converts CompletableFuture to Vert.x Future. If the caller runs on an event loop context, the Vert.x Future
+   * is completed on that context: directly if the CompletableFuture completes there, otherwise by dispatching
+   * to the context. The log4j ThreadContext of the caller is restored for the completion.
+   * Failure cause is wrapped into {@link CompletionException}, as it would be for a dependent stage.
+   */
   public static <T> Future<T> mapCompletableFuture(CompletableFuture<T> completableFuture) {
+    ContextSnapshot snapshot = ContextSnapshot.capture();
     Promise<T> promise = Promise.promise();
 
-    completableFuture
-      .thenAccept(promise::complete)
-      .exceptionally(cause -> {
-        promise.fail(cause);
-        return null;
-      });
+    completableFuture.whenComplete((result, cause) -> snapshot.run(() -> {
+      if (cause == null) {
+        promise.complete(result);
+      } else {
+        promise.fail(cause instanceof CompletionException ? cause : new CompletionException(cause));
+      }
+    }));
 
     return promise.future();
   }
@@ -91,17 +129,388 @@ public final class FutureUtils {
    */
   public static <T> CompletableFuture<List<T>> allOfSucceeded(Collection<CompletableFuture<T>> futures,
                                                               Consumer<Throwable> exceptionHandler) {
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-      .handle((o, e) ->
-        futures.stream()
-          .map(future -> future.whenComplete((result, throwable) -> {
-            if (throwable != null) {
-              exceptionHandler.accept(throwable);
+    return SucceededCollector.collect(futures, futures.size(), false, null, exceptionHandler);
+  }
+
+  /**
+   * Same as {@link #allOfSucceeded(Collection, Consumer)} but if not all of the given futures complete
+   * within the deadline then returned CompletableFuture contains values from futures that have succeeded so far
+   */
+  public static <T> CompletableFuture<List<T>> allOfSucceeded(Collection<CompletableFuture<T>> futures,
+                                                              Duration deadline,
+                                                              Consumer<Throwable> exceptionHandler) {
+    Objects.requireNonNull(deadline);
+    return SucceededCollector.collect(futures, futures.size(), false, deadline, exceptionHandler);
+  }
+
+  /**
+   * Returns a new CompletableFuture that is completed as soon as {@code count} of the given futures succeed,
+   * or when all of them complete if there are not enough successes.
+   * If future completes exceptionally then the exception is passed to provided exceptionHandler
+   */
+  public static <T> CompletableFuture<List<T>> firstSucceeded(Collection<CompletableFuture<T>> futures, int count,
+                                                              Consumer<Throwable> exceptionHandler) {
+    return SucceededCollector.collect(futures, count, false, null, exceptionHandler);
+  }
+
+  /**
+   * Same as {@link #firstSucceeded(Collection, int, Consumer)} but if the deadline is reached first then
+   * returned CompletableFuture contains values from futures that have succeeded so far
+   */
+  public static <T> CompletableFuture<List<T>> firstSucceeded(Collection<CompletableFuture<T>> futures, int count,
+                                                              Duration deadline,
+                                                              Consumer<Throwable> exceptionHandler) {
+    Objects.requireNonNull(deadline);
+    return SucceededCollector.collect(futures, count, false, deadline, exceptionHandler);
+  }
+
+  /**
+   * Returns a new CompletableFuture that is completed as soon as {@code quorum} of the given futures succeed.
+   * Returned CompletableFuture fails with {@link IllegalStateException} once the quorum cannot be reached
+   * and with {@link java.util.concurrent.TimeoutException} if the quorum is not reached within the deadline.
+   * If future completes exceptionally then the exception is passed to provided exceptionHandler
+   */
+  public static <T> CompletableFuture<List<T>> quorumOfSucceeded(Collection<CompletableFuture<T>> futures,
+                                                                 int quorum, Duration deadline,
+                                                                 Consumer<Throwable> exceptionHandler) {
+    Objects.requireNonNull(deadline);
+    return SucceededCollector.collect(futures, quorum, true, deadline, exceptionHandler);
+  }
+
+  /**
+   * Applies the asynchronous mapper to every item keeping at most {@code maxInFlight} operations running,
+   * returned Future contains results in the order of the items.
+   * The returned Future fails with the first failure and no new operations are started after that.
+   */
+  public static <T, R> Future<List<R>> traverse(Collection<? extends T> items, Function<? super T, Future<R>> mapper,
+                                                int maxInFlight) {
+    return traverseVertx(items, mapper, maxInFlight, null);
+  }
+
+  /**
+   * Applies the asynchronous mapper to every item keeping at most {@code maxInFlight} operations running,
+   * returned Future contains results of the operations that have succeeded in the order of the items.
+   * If operation fails then the exception is passed to provided exceptionHandler
+   */
+  public static <T, R> Future<List<R>> traverseSucceeded(Collection<? extends T> items,
+                                                         Function<? super T, Future<R>> mapper, int maxInFlight,
+                                                         Consumer<Throwable> exceptionHandler) {
+    Objects.requireNonNull(exceptionHandler);
+    return traverseVertx(items, mapper, maxInFlight, exceptionHandler);
+  }
+
+  /**
+   * CompletableFuture counterpart of {@link #traverse(Collection, Function, int)}.
+   */
+  public static <T, R> CompletableFuture<List<R>> traverseCompletable(Collection<? extends T> items,
+                                                                      Function<? super T, CompletableFuture<R>> mapper,
+                                                                      int maxInFlight) {
+    return traverseCompletable(items, mapper, maxInFlight, null);
+  }
+
+  /**
+   * CompletableFuture counterpart of {@link #traverseSucceeded(Collection, Function, int, Consumer)}.
+   */
+  public static <T, R> CompletableFuture<List<R>> traverseCompletableSucceeded(
+    Collection<? extends T> items, Function<? super T, CompletableFuture<R>> mapper, int maxInFlight,
+    Consumer<Throwable> exceptionHandler) {
+    Objects.requireNonNull(exceptionHandler);
+    return traverseCompletable(items, mapper, maxInFlight, exceptionHandler);
+  }
+
+  /**
+   * Repeats the asynchronous action while it fails and the policy allows another attempt.
+   * Attempts are scheduled with {@link Vertx#setTimer(long, io.vertx.core.Handler)}, so no thread is blocked
+   * between them. The returned Future fails with the cause of the last attempt.
+   */
+  public static <T> Future<T> retry(Vertx vertx, Supplier<Future<T>> action, RetryPolicy policy) {
+    Objects.requireNonNull(vertx);
+    Objects.requireNonNull(policy);
+
+    Promise<T> promise = Promise.promise();
+    attempt(vertx, action, policy, 1, System.nanoTime(), promise);
+    return promise.future();
+  }
+
+  /**
+   * Same as {@link #retry(Vertx, Supplier, RetryPolicy)} using the Vert.x instance of the current context.
+   */
+  public static <T> Future<T> retry(Supplier<Future<T>> action, RetryPolicy policy) {
+    Context context = Vertx.currentContext();
+    if (context == null) {
+      throw new IllegalStateException("Retry requires a Vert.x context, use retry(Vertx, Supplier, RetryPolicy)");
+    }
+    return retry(context.owner(), action, policy);
+  }
+
+  /**
+   * Runs the blocking task on a new virtual thread instead of a worker pool thread.
+   * The returned Future is completed on the event loop context of the caller, if there is one,
+   * and the log4j ThreadContext (MDC) of the caller is available to the task.
+   */
+  public static <T> Future<T> executeOnVirtualThread(Callable<T> task) {
+    Objects.requireNonNull(task);
+
+    ContextSnapshot snapshot = ContextSnapshot.capture();
+    Promise<T> promise = Promise.promise();
+
+    VIRTUAL_THREAD_EXECUTOR.execute(() -> snapshot.runWithThreadContext(() -> {
+      try {
+        T result = task.call();
+        snapshot.run(() -> promise.complete(result));
+      } catch (Throwable e) {
+        snapshot.run(() -> promise.fail(e));
+      }
+    }));
+
+    return promise.future();
+  }
+
+  /**
+   * Waits for the Future to complete and returns its result. Intended to be called from a virtual thread:
+   * the thread is parked without pinning its carrier. The failure cause is rethrown as is if it is unchecked,
+   * otherwise it is wrapped into {@link CompletionException}.
+   *
+   * <p>The log4j ThreadContext of the calling thread is captured before parking and restored when the thread
+   * resumes, whatever the callbacks of the Future have put into it. Entries put into the ThreadContext by
+   * the code that completes the Future are not carried back to the caller.
+   *
+   * @throws IllegalStateException if called on an event loop thread
+   */
+  public static <T> T await(Future<T> future) {
+    if (Context.isOnEventLoopThread()) {
+      throw new IllegalStateException("Cannot await a future on an event loop thread");
+    }
+
+    Map<String, String> threadContext = ThreadContext.isEmpty() ? Map.of() : ThreadContext.getImmutableContext();
+    try {
+      return mapVertxFuture(future).get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(e);
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof RuntimeException runtimeException) {
+        throw runtimeException;
+      } else if (cause instanceof Error error) {
+        throw error;
+      }
+      throw new CompletionException(cause);
+    } finally {
+      ThreadContext.clearMap();
+      ThreadContext.putAll(threadContext);
+    }
+  }
+
+  /**
+   * Applies the asynchronous step to each item one after another, passing the result of the previous step
+   * to the next one. Steps that complete synchronously are iterated in a loop, so the stack doesn't grow
+   * with the number of items. The returned Future fails with the first failure of a step.
+   */
+  public static <T, A> Future<A> foldLeft(Iterable<T> items, A initial,
+                                          BiFunction<A, ? super T, Future<A>> step) {
+    Promise<A> promise = Promise.promise();
+    foldLeft(items.iterator(), initial, step, promise);
+    return promise.future();
+  }
+
+  /**
+   * Applies the asynchronous action to each item one after another,
+   * the action for an item is started only after the action for the previous item has succeeded.
+   */
+  public static <T> Future<Void> forEachSequential(Iterable<T> items, Function<? super T, Future<?>> action) {
+    return FutureUtils.<T, Void>foldLeft(items, null, (v, item) -> action.apply(item).mapEmpty());
+  }
+
+  /**
+   * Repeats the asynchronous body while the condition holds,
+   * the condition is checked only after the previous run of the body has succeeded.
+   */
+  public static Future<Void> whileAsync(BooleanSupplier condition, Supplier<Future<?>> body) {
+    Promise<Void> promise = Promise.promise();
+    whileAsync(condition, body, promise);
+    return promise.future();
+  }
+
+  private static <T, A> void foldLeft(Iterator<T> iterator, A initial, BiFunction<A, ? super T, Future<A>> step,
+                                      Promise<A> promise) {
+    A accumulator = initial;
+
+    while (iterator.hasNext()) {
+      Future<A> next;
+      try {
+        next = step.apply(accumulator, iterator.next());
+      } catch (Throwable e) {
+        promise.fail(e);
+        return;
+      }
+
+      if (!next.isComplete()) {
+        // continue the loop when the step completes, the stack is already unwound at that point
+        next.onComplete(ar -> {
+          if (ar.succeeded()) {
+            foldLeft(iterator, ar.result(), step, promise);
+          } else {
+            promise.fail(ar.cause());
+          }
+        });
+        return;
+      } else if (next.failed()) {
+        promise.fail(next.cause());
+        return;
+      }
+
+      accumulator = next.result();
+    }
+
+    promise.complete(accumulator);
+  }
+
+  private static void whileAsync(BooleanSupplier condition, Supplier<Future<?>> body, Promise<Void> promise) {
+    try {
+      while (condition.getAsBoolean()) {
+        Future<?> next = body.get();
+
+        if (!next.isComplete()) {
+          next.onComplete(ar -> {
+            if (ar.succeeded()) {
+              whileAsync(condition, body, promise);
+            } else {
+              promise.fail(ar.cause());
             }
-          }))
-          .filter(future -> !future.isCompletedExceptionally())
-          .map(CompletableFuture::join)
-          .toList()
-      );
+          });
+          return;
+        } else if (next.failed()) {
+          promise.fail(next.cause());
+          return;
+        }
+      }
+    } catch (Throwable e) {
+      promise.fail(e);
+      return;
+    }
+
+    promise.complete();
+  }
+
+  private static <T> void attempt(Vertx vertx, Supplier<Future<T>> action, RetryPolicy policy, int attempt,
+                                  long startNanos, Promise<T> promise) {
+    Future<T> future;
+    try {
+      future = action.get();
+    } catch (Throwable e) {
+      future = Future.failedFuture(e);
+    }
+
+    future.onComplete(ar -> {
+      if (ar.succeeded()) {
+        promise.complete(ar.result());
+        return;
+      }
+
+      Throwable cause = ar.cause();
+      if (attempt >= policy.getMaxAttempts() || !policy.shouldRetry(cause)) {
+        promise.fail(cause);
+        return;
+      }
+
+      long delay = policy.delayMillis(attempt);
+      Duration maxElapsedTime = policy.getMaxElapsedTime();
+      if (maxElapsedTime != null
+        && Duration.ofNanos(System.nanoTime() - startNanos).plusMillis(delay).compareTo(maxElapsedTime) > 0) {
+        promise.fail(cause);
+        return;
+      }
+
+      vertx.setTimer(delay, id -> attempt(vertx, action, policy, attempt + 1, startNanos, promise));
+    });
+  }
+
+  private static <T, R> Future<List<R>> traverseVertx(Collection<? extends T> items,
+                                                      Function<? super T, Future<R>> mapper, int maxInFlight,
+                                                      Consumer<Throwable> exceptionHandler) {
+    Promise<List<R>> promise = Promise.promise();
+
+    BoundedTraversal.<T, R>run(items, maxInFlight,
+      (item, callback) -> mapper.apply(item)
+        .onComplete(ar -> callback.accept(ar.result(), ar.cause())),
+      exceptionHandler,
+      (list, throwable) -> {
+        if (throwable == null) {
+          promise.complete(list);
+        } else {
+          promise.fail(throwable);
+        }
+      });
+
+    return promise.future();
+  }
+
+  private static <T, R> CompletableFuture<List<R>> traverseCompletable(
+    Collection<? extends T> items, Function<? super T, CompletableFuture<R>> mapper, int maxInFlight,
+    Consumer<Throwable> exceptionHandler) {
+    CompletableFuture<List<R>> result = new CompletableFuture<>();
+
+    BoundedTraversal.<T, R>run(items, maxInFlight,
+      (item, callback) -> mapper.apply(item).whenComplete(callback),
+      exceptionHandler,
+      (list, throwable) -> {
+        if (throwable == null) {
+          result.complete(list);
+        } else {
+          result.completeExceptionally(throwable);
+        }
+      });
+
+    return result;
+  }
+
+  private static Function<Throwable, Throwable> exceptionWrapper(Class<?> wrapperExcClass) {
+    MethodHandle constructor = findWrapperConstructor(wrapperExcClass);
+
+    if (constructor == null) {
+      // the most specific constructor depends on the type of the cause, so it has to be matched on each call
+      return cause -> wrapperExcClass.isInstance(cause) ? cause : invokeMatchingConstructor(wrapperExcClass, cause);
+    }
+
+    return cause -> {
+      if (wrapperExcClass.isInstance(cause)) {
+        return cause;
+      }
+      try {
+        return (Throwable) constructor.invokeExact(cause);
+      } catch (Throwable e) {
+        return e;
+      }
+    };
+  }
+
+  private static MethodHandle findWrapperConstructor(Class<?> wrapperExcClass) {
+    boolean hasSpecificConstructors = Arrays.stream(wrapperExcClass.getConstructors())
+      .filter(c -> c.getParameterCount() == 1)
+      .map(c -> c.getParameterTypes()[0])
+      .anyMatch(type -> type != Throwable.class && Throwable.class.isAssignableFrom(type));
+
+    if (hasSpecificConstructors) {
+      return null;
+    }
+
+    try {
+      Constructor<?> constructor = wrapperExcClass.getConstructor(Throwable.class);
+      return MethodHandles.publicLookup()
+        .unreflectConstructor(constructor)
+        .asType(MethodType.methodType(Throwable.class, Throwable.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static Throwable invokeMatchingConstructor(Class<?> wrapperExcClass, Throwable cause) {
+    try {
+      return (Throwable) ConstructorUtils.invokeConstructor(wrapperExcClass, cause);
+    } catch (NoSuchMethodException | InstantiationException | IllegalAccessException
+             | InvocationTargetException e) {
+      return e;
+    }
   }
 }
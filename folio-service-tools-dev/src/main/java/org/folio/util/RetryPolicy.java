@@ -0,0 +1,134 @@
+package org.folio.util;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+import org.apache.commons.lang3.Validate;
+
+import org.folio.db.exc.DbExcUtils;
+
+/**
+ * Defines when and how often a failed asynchronous operation is repeated by
+ * {@link FutureUtils#retry(io.vertx.core.Vertx, java.util.function.Supplier, RetryPolicy)}.
+ *
+ * <p>The delay before attempt {@code n + 1} is {@code initialDelay * multiplier^(n - 1)} capped by {@code maxDelay}
+ * and reduced by a random part of up to {@code jitter} of its value.
+ */
+public final class RetryPolicy {
+
+  private final int maxAttempts;
+  private final Duration initialDelay;
+  private final Duration maxDelay;
+  private final double multiplier;
+  private final double jitter;
+  private final Duration maxElapsedTime;
+  private final Predicate<Throwable> retryOn;
+
+  private RetryPolicy(Builder builder) {
+    this.maxAttempts = builder.maxAttempts;
+    this.initialDelay = builder.initialDelay;
+    this.maxDelay = builder.maxDelay;
+    this.multiplier = builder.multiplier;
+    this.jitter = builder.jitter;
+    this.maxElapsedTime = builder.maxElapsedTime;
+    this.retryOn = builder.retryOn;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Default policy that retries only transient database errors, see {@link DbExcUtils#isTransient(Throwable)}.
+   */
+  public static RetryPolicy transientDbErrors() {
+    return builder().retryOn(DbExcUtils::isTransient).build();
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public Duration getMaxElapsedTime() {
+    return maxElapsedTime;
+  }
+
+  public boolean shouldRetry(Throwable cause) {
+    return retryOn.test(cause);
+  }
+
+  /**
+   * Returns the delay in milliseconds before the next attempt after the given number of failed attempts.
+   */
+  public long delayMillis(int failedAttempts) {
+    double delay = initialDelay.toMillis() * Math.pow(multiplier, Math.max(0, failedAttempts - 1));
+    delay = Math.min(delay, maxDelay.toMillis());
+
+    if (jitter > 0) {
+      delay -= delay * jitter * ThreadLocalRandom.current().nextDouble();
+    }
+
+    return Math.max(1, Math.round(delay));
+  }
+
+  public static final class Builder {
+
+    private int maxAttempts = 3;
+    private Duration initialDelay = Duration.ofMillis(100);
+    private Duration maxDelay = Duration.ofSeconds(10);
+    private double multiplier = 2.0;
+    private double jitter = 0.5;
+    private Duration maxElapsedTime;
+    private Predicate<Throwable> retryOn = t -> true;
+
+    private Builder() {
+    }
+
+    public Builder maxAttempts(int maxAttempts) {
+      Validate.isTrue(maxAttempts > 0, "Max attempts must be positive: %d", maxAttempts);
+      this.maxAttempts = maxAttempts;
+      return this;
+    }
+
+    public Builder initialDelay(Duration initialDelay) {
+      this.initialDelay = Objects.requireNonNull(initialDelay);
+      return this;
+    }
+
+    public Builder maxDelay(Duration maxDelay) {
+      this.maxDelay = Objects.requireNonNull(maxDelay);
+      return this;
+    }
+
+    public Builder multiplier(double multiplier) {
+      Validate.isTrue(multiplier >= 1, "Multiplier must not be less than 1: %f", multiplier);
+      this.multiplier = multiplier;
+      return this;
+    }
+
+    public Builder jitter(double jitter) {
+      Validate.inclusiveBetween(0.0, 1.0, jitter, "Jitter must be between 0 and 1");
+      this.jitter = jitter;
+      return this;
+    }
+
+    /**
+     * No attempt is scheduled if it would start later than the given time after the first attempt.
+     */
+    public Builder maxElapsedTime(Duration maxElapsedTime) {
+      this.maxElapsedTime = maxElapsedTime;
+      return this;
+    }
+
+    public Builder retryOn(Predicate<Throwable> retryOn) {
+      this.retryOn = Objects.requireNonNull(retryOn);
+      return this;
+    }
+
+    public RetryPolicy build() {
+      return new RetryPolicy(this);
+    }
+  }
+}
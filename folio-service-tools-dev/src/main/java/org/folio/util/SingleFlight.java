@@ -0,0 +1,88 @@
+package org.folio.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * Coalesces concurrent calls with the same key into a single asynchronous operation.
+ *
+ * <p>The first caller starts the operation, callers arriving while it is in flight get the same Future.
+ * The entry is released as soon as the operation completes, so results are never cached:
+ * the next call with the same key starts a new operation.
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, Future<V>> inFlight = new ConcurrentHashMap<>();
+  private final LongAdder calls = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  public Future<V> execute(K key, Supplier<Future<V>> supplier) {
+    calls.increment();
+
+    Future<V> shared = inFlight.get(key);
+    if (shared != null) {
+      coalesced.increment();
+      return shared;
+    }
+
+    Promise<V> promise = Promise.promise();
+    Future<V> future = promise.future();
+
+    shared = inFlight.putIfAbsent(key, future);
+    if (shared != null) {
+      coalesced.increment();
+      return shared;
+    }
+
+    Future<V> operation;
+    try {
+      operation = supplier.get();
+    } catch (Throwable e) {
+      operation = Future.failedFuture(e);
+    }
+
+    operation.onComplete(ar -> {
+      // release the key before completion, so callers notified by the future start a new operation
+      inFlight.remove(key, future);
+      if (ar.succeeded()) {
+        promise.complete(ar.result());
+      } else {
+        promise.fail(ar.cause());
+      }
+    });
+
+    return future;
+  }
+
+  /**
+   * CompletableFuture counterpart of {@link #execute(Object, Supplier)}.
+   * Each caller gets its own CompletableFuture, so completing it doesn't affect other callers.
+   */
+  public CompletableFuture<V> executeCompletable(K key, Supplier<CompletableFuture<V>> supplier) {
+    return FutureUtils.mapVertxFuture(execute(key, () -> FutureUtils.mapCompletableFuture(supplier.get())));
+  }
+
+  /**
+   * Number of calls made through this instance.
+   */
+  public long getCalls() {
+    return calls.sum();
+  }
+
+  /**
+   * Number of calls that joined an operation already in flight instead of starting a new one.
+   */
+  public long getCoalesced() {
+    return coalesced.sum();
+  }
+
+  public int getInFlight() {
+    return inFlight.size();
+  }
+}
@@ -0,0 +1,150 @@
+package org.folio.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * Collects results of futures into a pre-sized array as they arrive.
+ *
+ * <p>The collector completes as soon as {@code required} futures have succeeded, when all futures have completed
+ * or when the deadline is reached, whichever happens first. In the quorum mode the collector fails
+ * if {@code required} successes cannot be reached anymore or are not reached before the deadline,
+ * otherwise the successes collected so far are returned. Results always keep the order of the futures.
+ *
+ * <p>The exception handler is called by the threads that complete the futures, calls are serialized,
+ * so the handler doesn't need to be thread-safe. An exception thrown by the handler is ignored.
+ */
+final class SucceededCollector<T> {
+
+  private static final Object NULL_VALUE = new Object();
+  private static final ScheduledThreadPoolExecutor DEADLINES = createDeadlineScheduler();
+
+  private final CompletableFuture<T>[] futures;
+  private final AtomicReferenceArray<Object> results;
+  private final int required;
+  private final boolean quorum;
+  private final Consumer<Throwable> exceptionHandler;
+
+  private final AtomicInteger succeeded = new AtomicInteger();
+  private final AtomicInteger failed = new AtomicInteger();
+  private final AtomicInteger completed = new AtomicInteger();
+  private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+  private final Object handlerLock = new Object();
+
+  @SuppressWarnings("unchecked")
+  private SucceededCollector(Collection<CompletableFuture<T>> futures, int required, boolean quorum,
+                             Consumer<Throwable> exceptionHandler) {
+    this.futures = futures.toArray(new CompletableFuture[0]);
+    this.results = new AtomicReferenceArray<>(this.futures.length);
+    this.required = Math.min(required, this.futures.length);
+    this.quorum = quorum;
+    this.exceptionHandler = exceptionHandler;
+  }
+
+  static <T> CompletableFuture<List<T>> collect(Collection<CompletableFuture<T>> futures, int required,
+                                                boolean quorum, Duration deadline,
+                                                Consumer<Throwable> exceptionHandler) {
+    if (required < 0 || (quorum && required > futures.size())) {
+      throw new IllegalArgumentException("Invalid number of required results: " + required);
+    }
+
+    SucceededCollector<T> collector = new SucceededCollector<>(futures, required, quorum, exceptionHandler);
+    collector.start(deadline);
+    return collector.result;
+  }
+
+  private void start(Duration deadline) {
+    if (succeeded.get() >= required) {
+      result.complete(snapshot());
+      return;
+    }
+
+    for (int i = 0; i < futures.length; i++) {
+      int index = i;
+      futures[i].whenComplete((value, throwable) -> onComplete(index, value, throwable));
+    }
+
+    if (deadline != null && !result.isDone()) {
+      ScheduledFuture<?> deadlineTask = DEADLINES.schedule(() -> onDeadline(deadline), deadline.toMillis(),
+        TimeUnit.MILLISECONDS);
+      result.whenComplete((list, throwable) -> deadlineTask.cancel(false));
+    }
+  }
+
+  private void onComplete(int index, T value, Throwable throwable) {
+    if (throwable == null) {
+      results.set(index, value == null ? NULL_VALUE : value);
+      if (succeeded.incrementAndGet() >= required && !result.isDone()) {
+        result.complete(snapshot());
+      }
+    } else {
+      handleException(throwable);
+
+      int failures = failed.incrementAndGet();
+      if (quorum && failures > futures.length - required) {
+        result.completeExceptionally(new IllegalStateException(
+          "Quorum of " + required + " is not reachable: " + failures + " of " + futures.length + " futures failed",
+          throwable));
+      }
+    }
+
+    if (completed.incrementAndGet() == futures.length && !result.isDone()) {
+      result.complete(snapshot());
+    }
+  }
+
+  private void handleException(Throwable throwable) {
+    if (exceptionHandler == null) {
+      return;
+    }
+    synchronized (handlerLock) {
+      try {
+        exceptionHandler.accept(throwable);
+      } catch (RuntimeException e) {
+        // a failing handler must not keep the result pending
+      }
+    }
+  }
+
+  private void onDeadline(Duration deadline) {
+    if (quorum) {
+      result.completeExceptionally(new TimeoutException(
+        "Quorum of " + required + " is not reached within " + deadline + ": " + succeeded.get() + " succeeded"));
+    } else {
+      result.complete(snapshot());
+    }
+  }
+
+  private static ScheduledThreadPoolExecutor createDeadlineScheduler() {
+    ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, runnable -> {
+      Thread thread = new Thread(runnable, "succeeded-collector-deadline");
+      thread.setDaemon(true);
+      return thread;
+    });
+    // cancelled deadlines must not keep their collectors reachable until they expire
+    scheduler.setRemoveOnCancelPolicy(true);
+    return scheduler;
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<T> snapshot() {
+    List<T> list = new ArrayList<>(Math.min(succeeded.get(), required));
+    for (int i = 0; i < futures.length && list.size() < required; i++) {
+      Object value = results.get(i);
+      if (value != null) {
+        list.add(value == NULL_VALUE ? null : (T) value);
+      }
+    }
+    return list;
+  }
+}
@@ -0,0 +1,107 @@
+package org.folio.util;
+
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Parses and formats UUIDs in the canonical {@code 8-4-4-4-12} form without intermediate strings,
+ * for ids that cross the API boundary as text.
+ *
+ * <p>Unlike {@link UUID#fromString(String)}, the parser accepts only the canonical form and reads any
+ * {@link CharSequence}, so an id can be parsed straight from a path or a larger string.
+ */
+public final class UuidUtils {
+
+  public static final int LENGTH = 36;
+
+  private static final byte[] HEX_VALUES = new byte[128];
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  static {
+    Arrays.fill(HEX_VALUES, (byte) -1);
+    for (int i = 0; i < 16; i++) {
+      HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+      HEX_VALUES[Character.toUpperCase(HEX_DIGITS[i])] = (byte) i;
+    }
+  }
+
+  private UuidUtils() {
+  }
+
+  public static UUID parse(CharSequence value) {
+    return parse(value, 0);
+  }
+
+  /**
+   * Parses the UUID that starts at the offset of the value.
+   *
+   * @throws IllegalArgumentException if there is no UUID in the canonical form at the offset
+   */
+  public static UUID parse(CharSequence value, int offset) {
+    if (value == null || offset < 0 || value.length() - offset < LENGTH
+      || value.charAt(offset + 8) != '-' || value.charAt(offset + 13) != '-'
+      || value.charAt(offset + 18) != '-' || value.charAt(offset + 23) != '-') {
+      throw new IllegalArgumentException("Invalid UUID: " + value);
+    }
+
+    long msb = hex(value, offset, 8) << 32 | hex(value, offset + 9, 4) << 16 | hex(value, offset + 14, 4);
+    long lsb = hex(value, offset + 19, 4) << 48 | hex(value, offset + 24, 12);
+    return new UUID(msb, lsb);
+  }
+
+  /**
+   * Returns whether the value is a UUID in the canonical form.
+   */
+  public static boolean isValid(CharSequence value) {
+    if (value == null || value.length() != LENGTH) {
+      return false;
+    }
+    try {
+      parse(value);
+      return true;
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Formats the UUID in the canonical lower case form, {@link UUID#toString()} already does it
+   * with a single allocation.
+   */
+  public static String format(UUID uuid) {
+    return uuid == null ? null : uuid.toString();
+  }
+
+  /**
+   * Appends the UUID in the canonical lower case form, for building ids into a larger string.
+   */
+  public static StringBuilder appendTo(StringBuilder builder, UUID uuid) {
+    long msb = uuid.getMostSignificantBits();
+    long lsb = uuid.getLeastSignificantBits();
+    appendHex(builder, msb >>> 32, 8).append('-');
+    appendHex(builder, msb >>> 16, 4).append('-');
+    appendHex(builder, msb, 4).append('-');
+    appendHex(builder, lsb >>> 48, 4).append('-');
+    return appendHex(builder, lsb, 12);
+  }
+
+  private static long hex(CharSequence value, int start, int digits) {
+    long result = 0;
+    for (int i = start; i < start + digits; i++) {
+      char c = value.charAt(i);
+      int digit = c < HEX_VALUES.length ? HEX_VALUES[c] : -1;
+      if (digit < 0) {
+        throw new IllegalArgumentException("Invalid UUID: " + value);
+      }
+      result = result << 4 | digit;
+    }
+    return result;
+  }
+
+  private static StringBuilder appendHex(StringBuilder builder, long value, int digits) {
+    for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+      builder.append(HEX_DIGITS[(int) (value >>> shift) & 0xf]);
+    }
+    return builder;
+  }
+}
@@ -0,0 +1,82 @@
+package org.folio.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.junit.jupiter.api.Test;
+
+import org.folio.common.OkapiParams;
+import org.folio.okapi.common.XOkapiHeaders;
+
+class CoalescingConfigurationTest {
+
+  private static final OkapiParams TENANT_A = params("tenant_a");
+  private static final OkapiParams TENANT_B = params("tenant_b");
+
+  @Test
+  void shouldCoalesceConcurrentLookupsOfSameTenant() {
+    Configuration delegate = mock(Configuration.class);
+    Promise<String> promise = Promise.promise();
+    when(delegate.getString(eq("code"), any())).thenReturn(promise.future());
+    CoalescingConfiguration configuration = new CoalescingConfiguration(delegate);
+
+    Future<String> first = configuration.getString("code", TENANT_A);
+    Future<String> second = configuration.getString("code", TENANT_A);
+    promise.complete("value");
+
+    assertEquals("value", first.result());
+    assertEquals("value", second.result());
+    assertEquals(1, configuration.getCoalesced());
+    verify(delegate).getString("code", TENANT_A);
+  }
+
+  @Test
+  void shouldNotCoalesceLookupsOfDifferentTenantsOrTypes() {
+    Configuration delegate = mock(Configuration.class);
+    when(delegate.getString(eq("code"), any())).thenReturn(Promise.<String>promise().future());
+    when(delegate.getInt(eq("code"), any())).thenReturn(Promise.<Integer>promise().future());
+    CoalescingConfiguration configuration = new CoalescingConfiguration(delegate);
+
+    configuration.getString("code", TENANT_A);
+    configuration.getString("code", TENANT_B);
+    configuration.getInt("code", TENANT_A);
+
+    assertEquals(0, configuration.getCoalesced());
+    verify(delegate, times(1)).getString("code", TENANT_A);
+    verify(delegate, times(1)).getString("code", TENANT_B);
+  }
+
+  @Test
+  void shouldNotCoalesceLookupsOfDifferentUsers() {
+    Configuration delegate = mock(Configuration.class);
+    when(delegate.getString(eq("code"), any())).thenReturn(Promise.<String>promise().future());
+    CoalescingConfiguration configuration = new CoalescingConfiguration(delegate);
+    OkapiParams userA = params("tenant_a", "token_a");
+    OkapiParams userB = params("tenant_a", "token_b");
+
+    configuration.getString("code", userA);
+    configuration.getString("code", userB);
+
+    assertEquals(0, configuration.getCoalesced());
+    verify(delegate).getString("code", userA);
+    verify(delegate).getString("code", userB);
+  }
+
+  private static OkapiParams params(String tenant) {
+    return new OkapiParams(Map.of(XOkapiHeaders.URL, "http://localhost:9130", XOkapiHeaders.TENANT, tenant));
+  }
+
+  private static OkapiParams params(String tenant, String token) {
+    return new OkapiParams(Map.of(XOkapiHeaders.URL, "http://localhost:9130", XOkapiHeaders.TENANT, tenant,
+      XOkapiHeaders.TOKEN, token));
+  }
+}
@@ -0,0 +1,184 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import static org.folio.db.ErrorFactory.getUniqueViolationErrorMap;
+import static org.folio.rest.persist.PgExceptionUtil.createPgExceptionFromMap;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.pgclient.PgConnection;
+import io.vertx.sqlclient.PreparedQuery;
+import io.vertx.sqlclient.Query;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowSet;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+
+import org.folio.db.exc.BulkWriteException;
+import org.folio.db.exc.ConstraintViolationException;
+import org.folio.rest.persist.Conn;
+import org.folio.rest.persist.PostgresClient;
+
+@ExtendWith(VertxExtension.class)
+class BulkWriterTest {
+
+  private static final String SQL = "INSERT INTO t (id) VALUES ($1)";
+
+  private PostgresClient pg;
+  private Conn conn;
+  private PgConnection pgConnection;
+  private PreparedQuery<RowSet<Row>> query;
+  private Query<RowSet<Row>> savepoint;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    pg = mock(PostgresClient.class);
+    conn = mock(Conn.class);
+    pgConnection = mock(PgConnection.class);
+    query = mock(PreparedQuery.class);
+    savepoint = mock(Query.class);
+
+    when(pg.withTrans(any())).thenAnswer(invocation ->
+      invocation.<Function<Conn, Future<?>>>getArgument(0).apply(conn));
+    when(conn.getPgConnection()).thenReturn(pgConnection);
+    when(pgConnection.preparedQuery(anyString())).thenReturn(query);
+    Future<RowSet<Row>> executed = succeeded(List.of());
+    when(pgConnection.query(anyString())).thenReturn(savepoint);
+    when(savepoint.execute()).thenReturn(executed);
+  }
+
+  @Test
+  void writesInChunks(VertxTestContext vtc) {
+    when(query.executeBatch(anyList())).thenAnswer(invocation -> succeeded(invocation.<List<Tuple>>getArgument(0)));
+
+    new BulkWriter(pg, 2).executeBatch(SQL, tuples(5))
+      .onComplete(vtc.succeeding(count -> vtc.verify(() -> {
+        assertThat(count, is(5));
+        verify(query, times(3)).executeBatch(anyList());
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void reportsIndexOfFailingRow(VertxTestContext vtc) {
+    when(query.executeBatch(anyList())).thenAnswer(invocation -> {
+      List<Tuple> batch = invocation.getArgument(0);
+      boolean duplicate = batch.stream().anyMatch(tuple -> tuple.getInteger(0) == 3);
+      return duplicate
+        ? Future.failedFuture(createPgExceptionFromMap(getUniqueViolationErrorMap()))
+        : succeeded(batch);
+    });
+
+    new BulkWriter(pg, 2).executeBatch(SQL, tuples(5))
+      .onComplete(vtc.failing(e -> vtc.verify(() -> {
+        assertThat(e, instanceOf(BulkWriteException.class));
+        assertThat(((BulkWriteException) e).getRowIndex(), is(3));
+        assertThat(e.getCause(), instanceOf(ConstraintViolationException.class));
+        // chunks [0, 1] and [2, 3], then rows 2 and 3 of the failed chunk alone
+        verify(query, times(4)).executeBatch(anyList());
+        verify(pgConnection, times(2)).query("SAVEPOINT bulk_write_chunk");
+        verify(pgConnection).query("ROLLBACK TO SAVEPOINT bulk_write_chunk");
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void reportsFailureAtCommit(VertxTestContext vtc) {
+    when(query.executeBatch(anyList())).thenAnswer(invocation -> succeeded(invocation.<List<Tuple>>getArgument(0)));
+    when(pg.withTrans(any())).thenAnswer(invocation ->
+      invocation.<Function<Conn, Future<?>>>getArgument(0).apply(conn)
+        .compose(v -> Future.failedFuture(createPgExceptionFromMap(getUniqueViolationErrorMap()))));
+
+    new BulkWriter(pg, 2).executeBatch(SQL, tuples(5))
+      .onComplete(vtc.failing(e -> vtc.verify(() -> {
+        assertThat(e, instanceOf(BulkWriteException.class));
+        assertThat(((BulkWriteException) e).getRowIndex(), is(-1));
+        assertThat(e.getCause(), instanceOf(ConstraintViolationException.class));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void upsertsJsonbBoundAsText(VertxTestContext vtc) {
+    var ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+    var params = ArgumentCaptor.forClass(Tuple.class);
+    var result = succeeded(ids);
+    when(query.execute(params.capture())).thenReturn(result);
+    var writer = spy(new BulkWriter(pg));
+    doReturn("diku_mod.t").when(writer).qualifiedTable("t");
+
+    writer.upsert("t", List.of("a", "b"), record -> ids.get(record.equals("a") ? 0 : 1))
+      .onComplete(vtc.succeeding(count -> vtc.verify(() -> {
+        assertThat(count, is(2));
+        verify(pgConnection).preparedQuery("INSERT INTO diku_mod.t (id, jsonb)"
+          + " VALUES ($1, $2::text::jsonb), ($3, $4::text::jsonb)"
+          + " ON CONFLICT (id) DO UPDATE SET jsonb = EXCLUDED.jsonb");
+        assertThat(params.getValue().getValue(0), is(ids.get(0)));
+        assertThat(params.getValue().getValue(1), is("\"a\""));
+        assertThat(params.getValue().getValue(3), is("\"b\""));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void loadsIdAndJsonbArrays(VertxTestContext vtc) {
+    var ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+    var params = ArgumentCaptor.forClass(Tuple.class);
+    var result = succeeded(ids);
+    when(query.execute(params.capture())).thenReturn(result);
+    var writer = spy(new BulkWriter(pg));
+    doReturn("diku_mod.t").when(writer).qualifiedTable("t");
+
+    writer.load("t", List.of("a", "b"), record -> ids.get(record.equals("a") ? 0 : 1))
+      .onComplete(vtc.succeeding(count -> vtc.verify(() -> {
+        assertThat(count, is(2));
+        verify(pgConnection).preparedQuery("INSERT INTO diku_mod.t (id, jsonb)"
+          + " SELECT r.id, r.jsonb::jsonb FROM unnest($1::uuid[], $2::text[]) AS r(id, jsonb)");
+        assertThat(params.getValue().getValue(0), is(ids.toArray(new UUID[0])));
+        assertThat(params.getValue().getValue(1), is(new String[] {"\"a\"", "\"b\""}));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void writesNothingForEmptyList(VertxTestContext vtc) {
+    new BulkWriter(pg).executeBatch(SQL, List.of())
+      .onComplete(vtc.succeeding(count -> vtc.verify(() -> {
+        assertThat(count, is(0));
+        vtc.completeNow();
+      })));
+  }
+
+  private static List<Tuple> tuples(int count) {
+    return IntStream.range(0, count).mapToObj(Tuple::of).toList();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Future<RowSet<Row>> succeeded(List<?> batch) {
+    RowSet<Row> rowSet = mock(RowSet.class);
+    when(rowSet.rowCount()).thenReturn(batch.size());
+    return Future.succeededFuture(rowSet);
+  }
+}
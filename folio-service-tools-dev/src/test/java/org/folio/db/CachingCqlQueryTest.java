@@ -0,0 +1,193 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.rest.persist.helpers.LocalRowSet;
+import org.folio.rest.persist.interfaces.Results;
+
+@ExtendWith(VertxExtension.class)
+class CachingCqlQueryTest {
+
+  private PostgresClient pg;
+  private QueryResultCache cache;
+  private CachingCqlQuery<String> query;
+
+  @BeforeEach
+  void setUp() {
+    pg = mock(PostgresClient.class);
+    cache = new QueryResultCache(10, Duration.ofMinutes(1));
+    query = spy(new CachingCqlQuery<>(pg, "t", String.class, cache));
+    doReturn("diku_mod.t").when(query).qualifiedTable();
+  }
+
+  @Test
+  void returnsCachedPage(VertxTestContext vtc) {
+    when(pg.get(any(), eq(String.class), any(CQLWrapper.class), eq(true)))
+      .thenAnswer(invocation -> results("foo"));
+
+    query.get("title=foo", 0, 10)
+      .compose(first -> query.get("title=foo", 0, 10).map(second -> {
+        assertThat(second, is(not(sameInstance(first))));
+        assertThat(second.getResults(), is(first.getResults()));
+        return second;
+      }))
+      .compose(v -> query.get("title=foo", 10, 10))
+      .onComplete(vtc.succeeding(v -> vtc.verify(() -> {
+        verify(pg, times(2)).get(any(), eq(String.class), any(CQLWrapper.class), eq(true));
+        assertThat(cache.getHits(), is(1L));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void dropsPagesOfChangedTable(VertxTestContext vtc) {
+    when(pg.get(any(), eq(String.class), any(CQLWrapper.class), eq(true)))
+      .thenAnswer(invocation -> results("foo"));
+
+    query.get("title=foo", 0, 10)
+      .compose(v -> {
+        cache.invalidateTable("other_mod.t");
+        return query.get("title=foo", 0, 10);
+      })
+      .compose(v -> {
+        cache.invalidateTable("diku_mod.t");
+        return query.get("title=foo", 0, 10);
+      })
+      .onComplete(vtc.succeeding(v -> vtc.verify(() -> {
+        verify(pg, times(2)).get(any(), eq(String.class), any(CQLWrapper.class), eq(true));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void doesNotCachePageReadBeforeInvalidation(VertxTestContext vtc) {
+    Promise<Results<String>> pending = Promise.promise();
+    when(pg.get(any(), eq(String.class), any(CQLWrapper.class), eq(true)))
+      .thenReturn(pending.future(), results("bar"));
+
+    Future<Results<String>> stale = query.get("title=foo", 0, 10);
+    cache.invalidateTable("diku_mod.t");
+    pending.complete(results("foo").result());
+
+    stale.compose(v -> query.get("title=foo", 0, 10))
+      .onComplete(vtc.succeeding(fresh -> vtc.verify(() -> {
+        assertThat(fresh.getResults(), is(List.of("bar")));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void triggerNotifiesCacheChannel() {
+    String sql = QueryResultCache.triggerSql("diku_mod", "t");
+
+    assertThat(sql, containsString("pg_notify('" + QueryResultCache.CHANNEL + "'"));
+    assertThat(sql, containsString("ON \"diku_mod\".\"t\""));
+  }
+
+  @Test
+  void triggerQuotesIdentifiers() {
+    String sql = QueryResultCache.triggerSql("diku_mod", "t\"; DROP TABLE x; --");
+
+    assertThat(sql, containsString("ON \"diku_mod\".\"t\"\"; DROP TABLE x; --\""));
+  }
+
+  @Test
+  void callersCannotChangeCachedPage(VertxTestContext vtc) {
+    when(pg.get(any(), eq(String.class), any(CQLWrapper.class), eq(true)))
+      .thenAnswer(invocation -> results("foo"));
+
+    query.get("title=foo", 0, 10)
+      .compose(first -> {
+        first.getResults().clear();
+        return query.get("title=foo", 0, 10);
+      })
+      .compose(second -> {
+        assertThat(second.getResults(), is(List.of("foo")));
+        second.getResults().add("bar");
+        return query.get("title=foo", 0, 10);
+      })
+      .onComplete(vtc.succeeding(third -> vtc.verify(() -> {
+        assertThat(third.getResults(), is(List.of("foo")));
+        verify(pg, times(1)).get(any(), eq(String.class), any(CQLWrapper.class), eq(true));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void keyHasOrderByOnlyWithSortBy(VertxTestContext vtc) {
+    var spiedCache = spy(cache);
+    var spiedQuery = spy(new CachingCqlQuery<>(pg, "t", String.class, spiedCache));
+    doReturn("diku_mod.t").when(spiedQuery).qualifiedTable();
+    var keys = ArgumentCaptor.forClass(QueryResultCache.Key.class);
+    when(pg.get(any(), eq(String.class), any(CQLWrapper.class), eq(true)))
+      .thenAnswer(invocation -> results("foo"));
+
+    spiedQuery.get("title=foo", 0, 10)
+      .compose(v -> spiedQuery.get("title=foo sortBy title", 0, 10))
+      .onComplete(vtc.succeeding(v -> vtc.verify(() -> {
+        verify(spiedCache, times(2)).get(keys.capture());
+        assertThat(keys.getAllValues().get(0).sql(), not(containsString("ORDER BY")));
+        assertThat(keys.getAllValues().get(1).sql(), containsString(" ORDER BY "));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void readsPagesMissingInCacheAsRouted(VertxTestContext vtc) {
+    var replica = mock(PostgresClient.class);
+    var lag = mock(Row.class);
+    when(lag.getValue(0)).thenReturn(0.0);
+    when(replica.select(eq(ReadRoutingPolicy.LAG_SQL), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(lag))));
+    when(replica.get(any(), eq(String.class), any(CQLWrapper.class), eq(true)))
+      .thenAnswer(invocation -> results("replica"));
+    var routed = spy(new CachingCqlQuery<>(ReadRoutingPolicy.builder(pg, replica).build(), "t", String.class,
+      cache));
+    doReturn("diku_mod.t").when(routed).qualifiedTable();
+
+    routed.get("title=foo", 0, 10)
+      .compose(first -> routed.get("title=foo", 0, 10))
+      .onComplete(vtc.succeeding(cached -> vtc.verify(() -> {
+        assertThat(cached.getResults(), is(List.of("replica")));
+        verify(replica, times(1)).get(any(), eq(String.class), any(CQLWrapper.class), eq(true));
+        verifyNoInteractions(pg);
+        vtc.completeNow();
+      })));
+  }
+
+  private static Future<Results<String>> results(String... items) {
+    var results = new Results<String>();
+    results.setResults(new ArrayList<>(List.of(items)));
+    return Future.succeededFuture(results);
+  }
+}
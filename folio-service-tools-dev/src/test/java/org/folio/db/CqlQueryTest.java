@@ -1,28 +1,55 @@
 package org.folio.db;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
 
+import org.folio.cql2pgjson.exception.CQL2PgJSONException;
 import org.folio.rest.jaxrs.model.ResultInfo;
+import org.folio.rest.persist.Conn;
 import org.folio.rest.persist.PostgresClient;
 import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.rest.persist.helpers.LocalRowSet;
 import org.folio.rest.persist.interfaces.Results;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
 
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
 import io.vertx.junit5.VertxExtension;
 import io.vertx.junit5.VertxTestContext;
+import io.vertx.pgclient.PgConnection;
+import io.vertx.sqlclient.PreparedStatement;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+import io.vertx.sqlclient.Tuple;
 
 @ExtendWith(VertxExtension.class)
 class CqlQueryTest {
@@ -69,6 +96,395 @@ class CqlQueryTest {
     }));
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = { 0, -1 })
+  void streamFailsOnInvalidFetchSize(int fetchSize, VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+    new CqlQuery<>(postgresClient, "t", String.class).stream("cql.allRecords=1", fetchSize)
+    .onComplete(vtc.failing(e -> {
+      assertThat(e, instanceOf(IllegalArgumentException.class));
+      verifyNoInteractions(postgresClient);
+      vtc.completeNow();
+    }));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "title ==", "title = (foo" })
+  void streamFailsOnInvalidCql(String cql, VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+    new CqlQuery<>(postgresClient, "t", String.class).stream(cql, 100)
+    .onComplete(vtc.failing(e -> {
+      assertThat(e, instanceOf(CQL2PgJSONException.class));
+      verifyNoInteractions(postgresClient);
+      vtc.completeNow();
+    }));
+  }
+
+  @Test
+  void streamCommitsWhenConsumedToTheEnd(VertxTestContext vtc) {
+    var rows = mockRowStream();
+    var transaction = new ArrayList<Future<?>>();
+    var cqlQuery = streamingQuery(rows, transaction);
+    var items = new ArrayList<String>();
+
+    cqlQuery.stream("cql.allRecords=1", 100)
+    .onComplete(vtc.succeeding(stream -> vtc.verify(() -> {
+      stream.endHandler(v -> vtc.verify(() -> {
+        assertThat(items, is(List.of("foo", "bar")));
+        assertThat(transaction.get(0).succeeded(), is(true));
+        vtc.completeNow();
+      }));
+      stream.handler(items::add);
+      rows.handler().getValue().handle(jsonRow("\"foo\""));
+      rows.handler().getValue().handle(jsonRow("\"bar\""));
+      rows.endHandler().getValue().handle(null);
+    })));
+  }
+
+  @Test
+  void streamRollsBackWhenClosedBeforeTheEnd(VertxTestContext vtc) {
+    var rows = mockRowStream();
+    var transaction = new ArrayList<Future<?>>();
+    var cqlQuery = streamingQuery(rows, transaction);
+    var items = new ArrayList<String>();
+
+    cqlQuery.stream("cql.allRecords=1", 100)
+    .compose(stream -> {
+      stream.endHandler(v -> vtc.failNow("stream closed before the end must not end"));
+      stream.handler(items::add);
+      rows.handler().getValue().handle(jsonRow("\"foo\""));
+      return stream.close();
+    })
+    .onComplete(vtc.succeeding(v -> vtc.verify(() -> {
+      rows.handler().getValue().handle(jsonRow("\"bar\""));
+      assertThat(items, is(List.of("foo")));
+      verify(rows.stream()).close();
+      assertThat(transaction.get(0).failed(), is(true));
+      vtc.completeNow();
+    })));
+  }
+
+  @Test
+  void readsFromReplicaUnlessReadYourWrites(VertxTestContext vtc) {
+    var primary = mock(PostgresClient.class);
+    var replica = mock(PostgresClient.class);
+    var lag = mock(Row.class);
+    when(lag.getValue(0)).thenReturn(0.0);
+    when(replica.select(eq(ReadRoutingPolicy.LAG_SQL), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(lag))));
+    when(replica.get(any(), eq(String.class), any(CQLWrapper.class), eq(false)))
+      .thenReturn(results(List.of("replica")));
+    when(primary.get(any(), eq(String.class), any(CQLWrapper.class), eq(false)))
+      .thenReturn(results(List.of("primary")));
+    var cqlQuery = new CqlQuery<>(ReadRoutingPolicy.builder(primary, replica).build(), "t", String.class);
+
+    cqlQuery.get("title=foo", 0, 1, TotalCountMode.NONE)
+      .compose(fromReplica -> {
+        assertThat(fromReplica.getResults(), is(List.of("replica")));
+        return cqlQuery.readYourWrites().get("title=foo", 0, 1, TotalCountMode.NONE);
+      })
+      .onComplete(vtc.succeeding(fromPrimary -> {
+        assertThat(fromPrimary.getResults(), is(List.of("primary")));
+        vtc.completeNow();
+      }));
+  }
+
+  @Test
+  void exactCountIsReadFromServerOfThePage(VertxTestContext vtc) {
+    CqlQuery.clearCountCache();
+    var primary = mock(PostgresClient.class);
+    var replica = mock(PostgresClient.class);
+    var lag = mock(Row.class);
+    when(lag.getValue(0)).thenReturn(0.0);
+    when(replica.select(eq(ReadRoutingPolicy.LAG_SQL), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(lag))));
+    when(replica.get(any(), eq(String.class), any(CQLWrapper.class), eq(false)))
+      .thenAnswer(invocation -> results(List.of("foo", "bar")));
+    var count = mock(Row.class);
+    when(count.getLong(0)).thenReturn(42L);
+    when(replica.select(ArgumentMatchers.startsWith("SELECT count(*) "), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(count))));
+    var cqlQuery = spy(new CqlQuery<>(ReadRoutingPolicy.builder(primary, replica).build(), "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+
+    cqlQuery.get("title=foo", 0, 2, TotalCountMode.EXACT)
+    .onComplete(vtc.succeeding(page -> {
+      assertThat(page.getResults(), is(List.of("foo", "bar")));
+      assertThat(page.getResultInfo().getTotalRecords(), is(42));
+      verify(replica).select(ArgumentMatchers.startsWith("SELECT count(*) FROM diku_mod.t WHERE "),
+        any(Tuple.class));
+      verifyNoMoreInteractions(primary);
+      vtc.completeNow();
+    }));
+  }
+
+  @Test
+  void noTotalCount(VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+    when(postgresClient.get(any(), eq(String.class), any(CQLWrapper.class), eq(false)))
+      .thenReturn(results(List.of("foo"), 7));
+
+    new CqlQuery<>(postgresClient, "t", String.class).get("some cql", 0, 1, TotalCountMode.NONE)
+    .onComplete(vtc.succeeding(result -> {
+      assertThat(result.getResultInfo().getTotalRecords(), is(nullValue()));
+      assertThat(result.getResultInfo().getTotalRecordsEstimated(), is(false));
+      verify(postgresClient).get(any(), eq(String.class), any(CQLWrapper.class), eq(false));
+      verifyNoMoreInteractions(postgresClient);
+      vtc.completeNow();
+    }));
+  }
+
+  @Test
+  void exactTotalCountIsCached(VertxTestContext vtc) {
+    CqlQuery.clearCountCache();
+    var postgresClient = mock(PostgresClient.class);
+    var cqlQuery = spy(new CqlQuery<>(postgresClient, "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+    when(postgresClient.get(any(), eq(String.class), any(CQLWrapper.class), eq(false)))
+      .thenAnswer(invocation -> results(List.of("foo", "bar")));
+    var count = mock(Row.class);
+    when(count.getLong(0)).thenReturn(42L);
+    when(postgresClient.select(any(), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(count))));
+
+    cqlQuery.get("title=foo", 0, 2, TotalCountMode.EXACT)
+    .compose(page1 -> {
+      assertThat(page1.getResultInfo().getTotalRecords(), is(42));
+      return cqlQuery.get("title=foo", 2, 2, TotalCountMode.EXACT);
+    })
+    .onComplete(vtc.succeeding(page2 -> {
+      assertThat(page2.getResultInfo().getTotalRecords(), is(42));
+      assertThat(page2.getResultInfo().getTotalRecordsEstimated(), is(false));
+      verify(postgresClient)
+        .select(ArgumentMatchers.startsWith("SELECT count(*) FROM diku_mod.t WHERE "), any(Tuple.class));
+      vtc.completeNow();
+    }));
+  }
+
+  @Test
+  void jsonCollectionOfAllRecords(VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+    var cqlQuery = spy(new CqlQuery<>(postgresClient, "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+    var row = mock(Row.class);
+    when(row.getValue(0)).thenReturn("{\"id\":\"1\"}");
+    when(postgresClient.select(any(), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(row))));
+
+    cqlQuery.getJsonCollection("title=foo", 0, Integer.MAX_VALUE, "items", TotalCountMode.EXACT)
+    .onComplete(vtc.succeeding(body -> {
+      assertThat(body.toJsonObject().getJsonArray("items").getJsonObject(0).getString("id"), is("1"));
+      assertThat(body.toJsonObject().getInteger("totalRecords"), is(1));
+      verify(postgresClient).select(ArgumentMatchers.endsWith(" OFFSET 0 LIMIT ALL"), any(Tuple.class));
+      verifyNoMoreInteractions(postgresClient);
+      vtc.completeNow();
+    }));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "5000, 2, 0, 2, 5000, true",   // full page, estimate above the threshold
+    "500, 2, 0, 2, 42, false",     // estimate below the threshold, counted exactly
+    "5000, 1, 10, 2, 11, false",   // last page, offset and size are the count
+  })
+  void jsonCollectionEstimatesLikeRmb(long planRows, int pageRows, int offset, int limit, int totalRecords,
+                                      boolean estimated, VertxTestContext vtc) {
+    CqlQuery.clearCountCache();
+    var postgresClient = mock(PostgresClient.class);
+    var cqlQuery = spy(new CqlQuery<>(postgresClient, "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+    var plan = mock(Row.class);
+    when(plan.getValue(0)).thenReturn(new JsonArray().add(new JsonObject().put("Plan",
+      new JsonObject().put("Plan Rows", planRows))));
+    var count = mock(Row.class);
+    when(count.getLong(0)).thenReturn(42L);
+    var rows = new ArrayList<Row>();
+    for (int i = 0; i < pageRows; i++) {
+      rows.add(jsonRow("{}"));
+    }
+    when(postgresClient.select(ArgumentMatchers.startsWith("EXPLAIN "), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(plan))));
+    when(postgresClient.select(ArgumentMatchers.startsWith("SELECT count(*) "), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(count))));
+    when(postgresClient.select(ArgumentMatchers.startsWith("SELECT jsonb::text "), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(pageRows).withRows(rows)));
+
+    cqlQuery.getJsonCollection("title=foo", offset, limit, "items", TotalCountMode.ESTIMATED)
+    .onComplete(vtc.succeeding(body -> vtc.verify(() -> {
+      assertThat(body.toJsonObject().getInteger("totalRecords"), is(totalRecords));
+      assertThat(body.toJsonObject().getJsonObject("resultInfo").getBoolean("totalRecordsEstimated"),
+        is(estimated));
+      vtc.completeNow();
+    })));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "-1, 10",
+    "0, -1",
+  })
+  void jsonCollectionFailsOnNegativeOffsetOrLimit(int offset, int limit, VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+
+    new CqlQuery<>(postgresClient, "t", String.class)
+      .getJsonCollection("title=foo", offset, limit, "items", TotalCountMode.EXACT)
+      .onComplete(vtc.failing(e -> vtc.verify(() -> {
+        assertThat(e, instanceOf(IllegalArgumentException.class));
+        verifyNoInteractions(postgresClient);
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void firstPageSql() throws Exception {
+    var cqlQuery = spy(new CqlQuery<>(mock(PostgresClient.class), "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+
+    var sql = cqlQuery.pageSql("cql.allRecords=1", "metadata.createdDate", 10, null).sql();
+
+    assertThat(sql, startsWith("SELECT jsonb::text AS jsonb, id, "
+      + "COALESCE(jsonb->'metadata'->>'createdDate', '') AS sort_key FROM diku_mod.t WHERE ("));
+    assertThat(sql, endsWith(") ORDER BY COALESCE(jsonb->'metadata'->>'createdDate', ''), id LIMIT 11"));
+    assertThat(sql, not(containsString("$1")));
+  }
+
+  @Test
+  void nextPageSql() throws Exception {
+    var cqlQuery = spy(new CqlQuery<>(mock(PostgresClient.class), "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+
+    var token = new KeysetToken(KeysetToken.query("cql.allRecords=1", "title"), "a", UUID.randomUUID());
+    var sql = cqlQuery.pageSql("cql.allRecords=1", "title", 10, token);
+
+    assertThat(sql.sql(), containsString(" AND (COALESCE(jsonb->>'title', ''), id) > ($1, $2) ORDER BY "));
+    assertThat(sql.params().getString(0), is("a"));
+  }
+
+  @Test
+  void getPagesUntilLastPage(VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+    var cqlQuery = spy(new CqlQuery<>(postgresClient, "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+    var ids = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+    when(postgresClient.select(any(), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(rows(ids, "a", "b", "c")))
+      .thenReturn(Future.succeededFuture(rows(ids.subList(2, 3), "c")));
+
+    cqlQuery.getPage("cql.allRecords=1", "title", 2, null)
+    .compose(page -> {
+      assertThat(page.items(), is(List.of("a", "b")));
+      assertThat(page.hasMore(), is(true));
+      assertThat(KeysetToken.decode(page.nextToken()),
+        is(new KeysetToken(KeysetToken.query("cql.allRecords=1", "title"), "b", ids.get(1))));
+      return cqlQuery.getPage("cql.allRecords=1", "title", 2, page.nextToken());
+    })
+    .onComplete(vtc.succeeding(page -> {
+      assertThat(page.items(), is(List.of("c")));
+      assertThat(page.nextToken(), is(nullValue()));
+      var params = ArgumentCaptor.forClass(Tuple.class);
+      verify(postgresClient, times(2)).select(any(), params.capture());
+      assertThat(params.getValue().getString(0), is("b"));
+      assertThat(params.getValue().getUUID(1), is(ids.get(1)));
+      vtc.completeNow();
+    }));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "title=foo, title",
+    "cql.allRecords=1, metadata.createdDate",
+  })
+  void getPageFailsOnTokenOfAnotherQuery(String cql, String sortField, VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+    var cqlQuery = spy(new CqlQuery<>(postgresClient, "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+    var token = new KeysetToken(KeysetToken.query("cql.allRecords=1", "title"), "a", UUID.randomUUID());
+
+    cqlQuery.getPage(cql, sortField, 10, token.encode())
+    .onComplete(vtc.failing(e -> {
+      assertThat(e, instanceOf(IllegalArgumentException.class));
+      verifyNoInteractions(postgresClient);
+      vtc.completeNow();
+    }));
+  }
+
+  @ParameterizedTest
+  @CsvSource({
+    "cql.allRecords=1, title;drop, 10,",
+    "cql.allRecords=1 sortBy title, title, 10,",
+    "cql.allRecords=1, title, 0,",
+    "cql.allRecords=1, title, 10, invalid",
+  })
+  void getPageFailsOnInvalidArguments(String cql, String sortField, int limit, String token, VertxTestContext vtc) {
+    var postgresClient = mock(PostgresClient.class);
+    var cqlQuery = spy(new CqlQuery<>(postgresClient, "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+
+    cqlQuery.getPage(cql, sortField, limit, token)
+    .onComplete(vtc.failing(e -> {
+      assertThat(e, instanceOf(IllegalArgumentException.class));
+      verifyNoInteractions(postgresClient);
+      vtc.completeNow();
+    }));
+  }
+
+  private record MockRowStream(RowStream<Row> stream, ArgumentCaptor<Handler<Row>> handler,
+                               ArgumentCaptor<Handler<Void>> endHandler) {
+  }
+
+  @SuppressWarnings("unchecked")
+  private static MockRowStream mockRowStream() {
+    RowStream<Row> stream = mock(RowStream.class);
+    ArgumentCaptor<Handler<Row>> handler = ArgumentCaptor.forClass(Handler.class);
+    ArgumentCaptor<Handler<Void>> endHandler = ArgumentCaptor.forClass(Handler.class);
+    when(stream.handler(handler.capture())).thenReturn(stream);
+    when(stream.endHandler(endHandler.capture())).thenReturn(stream);
+    when(stream.exceptionHandler(any())).thenReturn(stream);
+    when(stream.close()).thenReturn(Future.succeededFuture());
+    return new MockRowStream(stream, handler, endHandler);
+  }
+
+  /**
+   * Query whose transaction opens the row stream, the future the transaction ends with is added to
+   * {@code transaction}.
+   */
+  private static CqlQuery<String> streamingQuery(MockRowStream rows, List<Future<?>> transaction) {
+    var postgresClient = mock(PostgresClient.class);
+    var conn = mock(Conn.class);
+    var pgConnection = mock(PgConnection.class);
+    var statement = mock(PreparedStatement.class);
+    when(postgresClient.withTrans(any())).thenAnswer(invocation -> {
+      Future<?> result = invocation.<Function<Conn, Future<?>>>getArgument(0).apply(conn);
+      transaction.add(result);
+      return result;
+    });
+    when(conn.getPgConnection()).thenReturn(pgConnection);
+    when(pgConnection.prepare(any())).thenReturn(Future.succeededFuture(statement));
+    when(statement.createStream(eq(100), any(Tuple.class))).thenReturn(rows.stream());
+
+    var cqlQuery = spy(new CqlQuery<>(postgresClient, "t", String.class));
+    doReturn("diku_mod.t").when(cqlQuery).qualifiedTable();
+    return cqlQuery;
+  }
+
+  private static Row jsonRow(String json) {
+    var row = mock(Row.class);
+    when(row.getValue(0)).thenReturn(json);
+    return row;
+  }
+
+  private static LocalRowSet rows(List<UUID> ids, String... titles) {
+    var rows = new ArrayList<Row>();
+    for (int i = 0; i < titles.length; i++) {
+      var row = mock(Row.class);
+      when(row.getValue(0)).thenReturn("\"" + titles[i] + "\"");
+      when(row.getUUID(1)).thenReturn(ids.get(i));
+      when(row.getString(2)).thenReturn(titles[i]);
+      rows.add(row);
+    }
+    return new LocalRowSet(rows.size()).withRows(rows);
+  }
+
   private static Future<Results<String>> results(List<String> list) {
     var results = new Results<String>();
     results.setResults(list);
@@ -1,20 +1,28 @@
 package org.folio.db;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import static org.folio.db.DbUtils.createParams;
 import static org.folio.db.DbUtils.createParamsAsJsonArray;
+import static org.folio.db.DbUtils.createUuidArrayParam;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 import io.vertx.core.json.JsonArray;
 import io.vertx.sqlclient.Tuple;
 import org.junit.jupiter.api.Test;
 
+import org.folio.cql2pgjson.exception.QueryValidationException;
+import org.folio.cql2pgjson.model.SqlSelect;
+
 class DbUtilsTest {
 
   @Test
@@ -56,6 +64,17 @@ class DbUtilsTest {
   }
 
 
+  @Test
+  void createUuidArrayParamBindsUuids() {
+    UUID first = UUID.randomUUID();
+    UUID second = UUID.randomUUID();
+
+    Tuple tuple = createUuidArrayParam(List.of(first, second.toString()));
+
+    assertThat(tuple.size(), is(1));
+    assertThat(tuple.getArrayOfUUIDs(0), is(new UUID[] {first, second}));
+  }
+
   @Test
   void createParamsAsJsonArrayFailedWithNPEIfParamsNull() {
     assertThrows(NullPointerException.class, () -> createParamsAsJsonArray((Iterable<?>) null));
@@ -93,4 +112,42 @@ class DbUtilsTest {
     assertThat(jarray.getString(0), is("param1"));
     assertThat(jarray.getInteger(1), is(0));
   }
+
+  @Test
+  void toSqlCachesTranslation() throws Exception {
+    DbUtils.clearCqlCache();
+    long hits = DbUtils.getTranslationCacheHits();
+    long misses = DbUtils.getTranslationCacheMisses();
+
+    SqlSelect first = DbUtils.toSql("instance", "title == foo");
+    SqlSelect second = DbUtils.toSql("instance", "title == foo");
+    DbUtils.toSql("item", "title == foo");
+
+    assertThat(second, sameInstance(first));
+    assertThat(DbUtils.getTranslationCacheHits() - hits, is(1L));
+    assertThat(DbUtils.getTranslationCacheMisses() - misses, is(2L));
+  }
+
+  @Test
+  void cqlWrapperUsesCachedTranslation() throws Exception {
+    DbUtils.clearCqlCache();
+    DbUtils.toSql("instance", "title == foo");
+    long hits = DbUtils.getTranslationCacheHits();
+
+    String sql = DbUtils.getCQLWrapper("instance", "title == foo", 10, 0).toString();
+
+    assertThat(sql, containsString("WHERE"));
+    assertThat(DbUtils.getTranslationCacheHits() - hits, greaterThanOrEqualTo(1L));
+  }
+
+  @Test
+  void getCQL2PgJSONReturnsSameInstancePerTable() throws Exception {
+    assertThat(DbUtils.getCQL2PgJSON("instance"), sameInstance(DbUtils.getCQL2PgJSON("instance")));
+  }
+
+  @Test
+  void toSqlDoesNotCacheInvalidQuery() {
+    assertThrows(QueryValidationException.class, () -> DbUtils.toSql("instance", "title =="));
+    assertThrows(QueryValidationException.class, () -> DbUtils.toSql("instance", "title =="));
+  }
 }
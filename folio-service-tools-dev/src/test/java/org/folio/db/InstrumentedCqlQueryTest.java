@@ -0,0 +1,111 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.vertx.core.Future;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+
+import org.folio.db.metrics.QueryInstrumentation;
+import org.folio.db.metrics.QueryStats;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.cql.CQLWrapper;
+import org.folio.rest.persist.helpers.LocalRowSet;
+import org.folio.rest.persist.interfaces.Results;
+
+@ExtendWith(VertxExtension.class)
+class InstrumentedCqlQueryTest {
+
+  @Test
+  void recordsQueriesOfSameShapeTogether(VertxTestContext vtc) {
+    PostgresClient pg = mock(PostgresClient.class);
+    when(pg.get(any(), eq(String.class), any(CQLWrapper.class), eq(true)))
+      .thenAnswer(invocation -> results("foo", "bar"));
+    QueryStats stats = new QueryStats();
+    QueryInstrumentation instrumentation = QueryInstrumentation.builder(stats)
+      .slowQueryThreshold(Duration.ofMinutes(1))
+      .build();
+    var query = spy(new InstrumentedCqlQuery<>(pg, "t", String.class, instrumentation));
+    doReturn("diku_mod.t").when(query).qualifiedTable();
+
+    query.get("title=foo", 0, 10)
+      .compose(v -> query.get("title=bar", 10, 10))
+      .onComplete(vtc.succeeding(v -> vtc.verify(() -> {
+        List<QueryStats.ShapeStats> shapes = stats.getShapeStats();
+        assertThat(shapes, hasSize(1));
+        assertThat(shapes.get(0).table(), is("t"));
+        assertThat(shapes.get(0).shape(), startsWith("SELECT jsonb FROM diku_mod.t WHERE "));
+        assertThat(shapes.get(0).count(), is(2L));
+        assertThat(shapes.get(0).rows(), is(4L));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void explainsSqlRenderedFromTheExecutedCqlWrapper(VertxTestContext vtc) {
+    PostgresClient pg = mock(PostgresClient.class);
+    var wrapper = ArgumentCaptor.forClass(CQLWrapper.class);
+    when(pg.get(any(), eq(String.class), wrapper.capture(), eq(true)))
+      .thenAnswer(invocation -> results("foo"));
+    when(pg.select(any(), any(Tuple.class))).thenReturn(Future.failedFuture("no plan"));
+    QueryInstrumentation instrumentation = QueryInstrumentation.builder(new QueryStats())
+      .slowQueryThreshold(Duration.ZERO)
+      .explainSampleRate(1)
+      .build();
+    var query = spy(new InstrumentedCqlQuery<>(pg, "t", String.class, instrumentation));
+    doReturn("diku_mod.t").when(query).qualifiedTable();
+
+    query.get("title=foo", 0, 10)
+      .onComplete(vtc.succeeding(v -> vtc.verify(() -> {
+        var params = ArgumentCaptor.forClass(Tuple.class);
+        verify(pg).select(eq("EXPLAIN (FORMAT JSON) SELECT jsonb FROM diku_mod.t "
+          + wrapper.getValue().toString().trim()), params.capture());
+        assertThat(params.getValue().size(), is(0));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void measuresKeysetPages(VertxTestContext vtc) {
+    PostgresClient pg = mock(PostgresClient.class);
+    when(pg.select(any(), any(Tuple.class))).thenReturn(Future.succeededFuture(new LocalRowSet(0).withRows(List.of())));
+    QueryStats stats = new QueryStats();
+    QueryInstrumentation instrumentation = QueryInstrumentation.builder(stats)
+      .slowQueryThreshold(Duration.ofMinutes(1))
+      .build();
+    var query = spy(new InstrumentedCqlQuery<>(pg, "t", String.class, instrumentation));
+    doReturn("diku_mod.t").when(query).qualifiedTable();
+
+    query.getPage("title=foo", "title", 10, null)
+      .onComplete(vtc.succeeding(page -> vtc.verify(() -> {
+        List<QueryStats.ShapeStats> shapes = stats.getShapeStats();
+        assertThat(shapes, hasSize(1));
+        assertThat(shapes.get(0).shape(), startsWith("SELECT jsonb::text AS jsonb, id, "));
+        assertThat(shapes.get(0).rows(), is(0L));
+        vtc.completeNow();
+      })));
+  }
+
+  private static Future<Results<String>> results(String... items) {
+    var results = new Results<String>();
+    results.setResults(List.of(items));
+    return Future.succeededFuture(results);
+  }
+}
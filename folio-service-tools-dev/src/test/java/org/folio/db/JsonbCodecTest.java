@@ -0,0 +1,64 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.UncheckedIOException;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import org.junit.jupiter.api.Test;
+
+class JsonbCodecTest {
+
+  private static final String JSON = "{\"a\":\"foo\",\"b\":\"bar\"}";
+
+  @Test
+  void decodesText() {
+    Row row = mock(Row.class);
+    when(row.getValue("jsonb")).thenReturn(JSON);
+
+    Holder holder = JsonbCodec.decoder(Holder.class, "jsonb").apply(row);
+
+    assertThat(holder.a, is("foo"));
+    assertThat(holder.b, is("bar"));
+  }
+
+  @Test
+  void decodesParsedJsonAndBuffer() {
+    Row row = mock(Row.class);
+    when(row.getValue(0)).thenReturn(new JsonObject(JSON));
+    when(row.getValue(1)).thenReturn(Buffer.buffer(JSON));
+    when(row.getValue(2)).thenReturn(null);
+
+    assertThat(JsonbCodec.decode(row, 0, Holder.class).a, is("foo"));
+    assertThat(JsonbCodec.decode(row, 1, Holder.class).b, is("bar"));
+    assertThat(JsonbCodec.decode(row, 2, Holder.class), is(nullValue()));
+  }
+
+  @Test
+  void encodesObject() {
+    Holder holder = new Holder();
+    holder.a = "foo";
+    holder.b = "bar";
+
+    assertThat(new JsonObject(JsonbCodec.encode(holder)), is(new JsonObject(JSON)));
+    assertThat(JsonbCodec.encodeToBuffer(holder).toJsonObject(), is(new JsonObject(JSON)));
+    assertThat(JsonbCodec.encode(null), is(nullValue()));
+  }
+
+  @Test
+  void failsOnInvalidJson() {
+    assertThrows(UncheckedIOException.class, () -> JsonbCodec.decode("{\"a\":", Holder.class));
+  }
+
+  static class Holder {
+    public String a;
+    public String b;
+  }
+}
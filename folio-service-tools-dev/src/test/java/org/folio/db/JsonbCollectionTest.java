@@ -0,0 +1,47 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.sqlclient.Row;
+import org.junit.jupiter.api.Test;
+
+import org.folio.rest.jaxrs.model.ResultInfo;
+import org.folio.rest.persist.helpers.LocalRowSet;
+
+class JsonbCollectionTest {
+
+  @Test
+  void writesRowsAsCollection() {
+    LocalRowSet rows = new LocalRowSet(2)
+      .withRows(List.of(row("{\"id\":\"1\"}"), row(new JsonObject().put("id", "2"))));
+
+    JsonObject body = JsonbCollection.write("items", rows, 0,
+      new ResultInfo().withTotalRecords(7).withTotalRecordsEstimated(false)).toJsonObject();
+
+    assertThat(body.getJsonArray("items"), is(new JsonArray().add(new JsonObject().put("id", "1"))
+      .add(new JsonObject().put("id", "2"))));
+    assertThat(body.getInteger("totalRecords"), is(7));
+    assertThat(body.getJsonObject("resultInfo").getInteger("totalRecords"), is(7));
+  }
+
+  @Test
+  void writesEmptyCollectionWithoutTotalRecords() {
+    JsonObject body = JsonbCollection.write("items", new LocalRowSet(0), 0, new ResultInfo()).toJsonObject();
+
+    assertThat(body.getJsonArray("items").isEmpty(), is(true));
+    assertThat(body.containsKey("totalRecords"), is(false));
+  }
+
+  private static Row row(Object jsonb) {
+    Row row = mock(Row.class);
+    when(row.getValue(0)).thenReturn(jsonb);
+    return row;
+  }
+}
@@ -0,0 +1,42 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class KeysetTokenTest {
+
+  @Test
+  void decodesEncodedToken() {
+    KeysetToken token = new KeysetToken(KeysetToken.query("title=foo", "title"), "Ünïcode, \"quoted\" title",
+      UUID.randomUUID());
+
+    String encoded = token.encode();
+
+    assertThat(encoded.matches("[A-Za-z0-9_-]+"), is(true));
+    assertThat(KeysetToken.decode(encoded), is(token));
+  }
+
+  @Test
+  void queryDependsOnCqlAndSortField() {
+    String query = KeysetToken.query("title=foo", "title");
+
+    assertThat(KeysetToken.query("title=foo", "title"), is(query));
+    assertThat(KeysetToken.query("title=bar", "title"), is(not(query)));
+    assertThat(KeysetToken.query("title=foo", "name"), is(not(query)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = { "", "not base64!", "WyJhIl0", "eyJhIjoxfQ", "WyJxIiwiYSIsIm5vdC1hLXV1aWQiXQ",
+    "WyJxIiwiYSIsbnVsbF0", "WyJhIiwiMDAwMDAwMDAtMDAwMC0wMDAwLTAwMDAtMDAwMDAwMDAwMDAwIl0" })
+  void failsOnInvalidToken(String token) {
+    assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(token));
+  }
+}
@@ -0,0 +1,144 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.folio.rest.persist.interfaces.Results;
+
+@ExtendWith(VertxExtension.class)
+class MultiTenantQueryTest {
+
+  @Test
+  void mergesRecordsAndReportsFailedTenants(Vertx vertx, VertxTestContext vtc) {
+    Map<String, CqlQuery<String>> queries = Map.of(
+      "a", query(Future.succeededFuture(results("a1", "c1"))),
+      "b", query(Future.succeededFuture(results("b1", "d1"))),
+      "c", query(Future.failedFuture(new IllegalStateException("c failed"))),
+      "d", query(Promise.<Results<String>>promise().future()));
+
+    new MultiTenantQuery<>(vertx, queries::get, 2, Duration.ofMillis(100))
+      .get(List.of("a", "b", "c", "d"), "cql.allRecords=1 sortBy name", 3, Comparator.naturalOrder())
+      .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+        assertThat(result.records(), is(List.of(
+          new MultiTenantQuery.TenantRecord<>("a", "a1"),
+          new MultiTenantQuery.TenantRecord<>("b", "b1"),
+          new MultiTenantQuery.TenantRecord<>("a", "c1"))));
+        assertThat(result.isComplete(), is(false));
+        assertThat(result.failures().keySet(), is(Set.of("c", "d")));
+        assertThat(result.failures().get("c"), instanceOf(IllegalStateException.class));
+        assertThat(result.failures().get("d"), instanceOf(TimeoutException.class));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void completeWhenAllTenantsAnswer(Vertx vertx, VertxTestContext vtc) {
+    Map<String, CqlQuery<String>> queries = Map.of(
+      "a", query(Future.succeededFuture(results("a1"))),
+      "b", query(Future.succeededFuture(results())));
+
+    new MultiTenantQuery<>(vertx, queries::get, 1, Duration.ofSeconds(5))
+      .get(List.of("a", "b"), "cql.allRecords=1", 10, Comparator.naturalOrder())
+      .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+        assertThat(result.records(), is(List.of(new MultiTenantQuery.TenantRecord<>("a", "a1"))));
+        assertThat(result.isComplete(), is(true));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void timedOutQueryKeepsItsSlotUntilItCompletes(Vertx vertx, VertxTestContext vtc) {
+    Promise<Results<String>> slow = Promise.promise();
+    CqlQuery<String> a = query(Future.succeededFuture(results("a1")));
+    Map<String, CqlQuery<String>> queries = Map.of("d", query(slow.future()), "a", a);
+
+    Future<MultiTenantQuery.MultiTenantResult<String>> result = new MultiTenantQuery<>(vertx, queries::get, 1,
+      Duration.ofMillis(50)).get(List.of("d", "a"), "cql.allRecords=1", 10, Comparator.naturalOrder());
+
+    vertx.setTimer(300, id -> vtc.verify(() -> {
+      verify(a, never()).get(anyString(), anyInt(), anyInt(), any());
+      assertThat(result.isComplete(), is(false));
+      slow.complete(results("d1"));
+    }));
+    result.onComplete(vtc.succeeding(r -> vtc.verify(() -> {
+      assertThat(r.records(), is(List.of(new MultiTenantQuery.TenantRecord<>("a", "a1"))));
+      assertThat(r.failures().get("d"), instanceOf(TimeoutException.class));
+      vtc.completeNow();
+    })));
+  }
+
+  @Test
+  void queriesDuplicateTenantOnce(Vertx vertx, VertxTestContext vtc) {
+    CqlQuery<String> a = query(Future.succeededFuture(results("a1")));
+    Map<String, CqlQuery<String>> queries = Map.of("a", a, "b", query(Future.succeededFuture(results("b1"))));
+
+    new MultiTenantQuery<>(vertx, queries::get, 2, Duration.ofSeconds(5))
+      .get(List.of("a", "b", "a"), "cql.allRecords=1", 10, Comparator.naturalOrder())
+      .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+        assertThat(result.records(), is(List.of(
+          new MultiTenantQuery.TenantRecord<>("a", "a1"),
+          new MultiTenantQuery.TenantRecord<>("b", "b1"))));
+        verify(a, times(1)).get(anyString(), anyInt(), anyInt(), any());
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void reportsTenantWhoseQueryThrowsError(Vertx vertx, VertxTestContext vtc) {
+    AssertionError error = new AssertionError("no schema");
+    Map<String, CqlQuery<String>> queries = Map.of("b", query(Future.succeededFuture(results("b1"))));
+    Function<String, CqlQuery<String>> factory = tenantId -> {
+      if (tenantId.equals("a")) {
+        throw error;
+      }
+      return queries.get(tenantId);
+    };
+
+    new MultiTenantQuery<>(vertx, factory, 1, Duration.ofSeconds(5))
+      .get(List.of("a", "b"), "cql.allRecords=1", 10, Comparator.naturalOrder())
+      .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+        assertThat(result.records(), is(List.of(new MultiTenantQuery.TenantRecord<>("b", "b1"))));
+        assertThat(result.failures(), is(Map.of("a", error)));
+        vtc.completeNow();
+      })));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static CqlQuery<String> query(Future<Results<String>> results) {
+    CqlQuery<String> query = mock(CqlQuery.class);
+    when(query.get(anyString(), eq(0), anyInt(), eq(TotalCountMode.NONE))).thenReturn(results);
+    return query;
+  }
+
+  private static Results<String> results(String... items) {
+    var results = new Results<String>();
+    results.setResults(List.of(items));
+    return results;
+  }
+}
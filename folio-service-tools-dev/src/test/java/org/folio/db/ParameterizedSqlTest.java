@@ -0,0 +1,107 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class ParameterizedSqlTest {
+
+  @Test
+  void replacesSearchTermsWithParameters() {
+    ParameterizedSql sql = ParameterizedSql.of(
+      "lower(f_unaccent(instance.jsonb->>'title')) LIKE lower(f_unaccent('foo%')) AND instance.jsonb->>'hrid'='in1'");
+
+    assertThat(sql.sql(), is("lower(f_unaccent(instance.jsonb->>'title')) LIKE lower(f_unaccent($1::text))"
+      + " AND instance.jsonb->>'hrid'=$2::text"));
+    assertThat(sql.params().size(), is(2));
+    assertThat(sql.params().getString(0), is("foo%"));
+    assertThat(sql.params().getString(1), is("in1"));
+  }
+
+  @Test
+  void sameShapeGivesSameTemplate() {
+    ParameterizedSql foo = ParameterizedSql.of("instance.jsonb->>'title' = 'foo'");
+    ParameterizedSql bar = ParameterizedSql.of("instance.jsonb->>'title' = 'bar'");
+
+    assertThat(foo.sql(), is(bar.sql()));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "jsonb->'a'->'b' IS NOT NULL",
+    "jsonb #> '{a,b}' IS NOT NULL",
+    "jsonb#>>'{a,b}' IS NOT NULL",
+    "to_tsvector('simple'::regconfig, jsonb->>'a') IS NOT NULL",
+    "jsonb->>'a' LIKE E'foo\\\\%'",
+    "\"it's\".jsonb IS NOT NULL",
+    "id='11111111-1111-4111-8111-111111111111'",
+    "(id>='00000000-0000-1000-8000-000000000000' AND id<='ffffffff-ffff-ffff-ffff-ffffffffffff')",
+    "id IN ('a', 'b')",
+    "(jsonb->>'n')::numeric > ('5')::numeric",
+  })
+  void keepsShapeLiteralsInline(String where) {
+    ParameterizedSql sql = ParameterizedSql.of(where);
+
+    assertThat(sql.sql(), is(where));
+    assertThat(sql.params().size(), is(0));
+  }
+
+  @Test
+  void castsExplicitlyTypedLiteralsFromText() {
+    ParameterizedSql sql = ParameterizedSql.of("jsonb->'tags' @> '[\"a\"]'::jsonb");
+
+    assertThat(sql.sql(), is("jsonb->'tags' @> $1::text::jsonb"));
+    assertThat(sql.params().getString(0), is("[\"a\"]"));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "id==11111111-1111-4111-8111-111111111111",
+    "id==11111111*",
+    "count>5",
+    "count==5",
+    "title=foo and hrid==in1",
+    "title==\"it's\"",
+    "tags.tagList=/respectAccents foo",
+  })
+  void bindsCqlSearchTermsAsText(String cql) throws Exception {
+    ParameterizedSql sql = DbUtils.toParameterizedWhere("instance", cql);
+
+    Matcher parameter = Pattern.compile("\\$(\\d+)(::text)?").matcher(sql.sql());
+    int count = 0;
+    while (parameter.find()) {
+      count++;
+      assertThat(sql.sql(), parameter.group(2), is("::text"));
+    }
+    assertThat(sql.params().size(), is(count));
+  }
+
+  @Test
+  void keepsIdsInlineForUuidInference() throws Exception {
+    ParameterizedSql sql = DbUtils.toParameterizedWhere("instance", "id==11111111-1111-4111-8111-111111111111");
+
+    assertThat(sql.sql(), containsString("'11111111-1111-4111-8111-111111111111'"));
+    assertThat(sql.params().size(), is(0));
+  }
+
+  @Test
+  void unescapesQuotesAndNumbersFromOffset() {
+    ParameterizedSql sql = ParameterizedSql.of("jsonb->>'a' > 'x' AND jsonb #>> '{b,c}' < 'it''s'", 2);
+
+    assertThat(sql.sql(), is("jsonb->>'a' > $3::text AND jsonb #>> '{b,c}' < $4::text"));
+    assertThat(sql.params().getString(1), is("it's"));
+  }
+
+  @Test
+  void failsOnUnterminatedQuote() {
+    assertThrows(IllegalArgumentException.class, () -> ParameterizedSql.of("a = 'foo"));
+  }
+}
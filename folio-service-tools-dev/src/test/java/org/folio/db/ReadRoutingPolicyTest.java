@@ -0,0 +1,98 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.helpers.LocalRowSet;
+
+class ReadRoutingPolicyTest {
+
+  private PostgresClient primary;
+  private PostgresClient replica;
+  private Function<PostgresClient, Future<String>> whoAnswers;
+
+  @BeforeEach
+  void setUp() {
+    primary = mock(PostgresClient.class);
+    replica = mock(PostgresClient.class);
+    whoAnswers = client -> Future.succeededFuture(client == primary ? "primary" : "replica");
+  }
+
+  @Test
+  void readsFromReplicaWithinMaxLag() {
+    replicaLagSeconds(0.2);
+    ReadRoutingPolicy policy = ReadRoutingPolicy.builder(primary, replica).maxLag(Duration.ofSeconds(1)).build();
+
+    assertThat(policy.read(whoAnswers).result(), is("replica"));
+    assertThat(policy.getLagMillis(), is(200L));
+    assertThat(policy.readFromPrimary(whoAnswers).result(), is("primary"));
+  }
+
+  @Test
+  void readsFromPrimaryAboveMaxLag() {
+    replicaLagSeconds(10);
+    ReadRoutingPolicy policy = ReadRoutingPolicy.builder(primary, replica).maxLag(Duration.ofSeconds(1)).build();
+
+    assertThat(policy.read(whoAnswers).result(), is("primary"));
+  }
+
+  @Test
+  void readsFromPrimaryWhenLagCheckFails() {
+    when(replica.select(eq(ReadRoutingPolicy.LAG_SQL), any(Tuple.class)))
+      .thenReturn(Future.failedFuture(new ConnectException("Connection refused")));
+    ReadRoutingPolicy policy = ReadRoutingPolicy.builder(primary, replica).build();
+
+    assertThat(policy.read(whoAnswers).result(), is("primary"));
+  }
+
+  @Test
+  void repeatsReadOnPrimaryAfterConnectionFailure() {
+    replicaLagSeconds(0);
+    ReadRoutingPolicy policy = ReadRoutingPolicy.builder(primary, replica)
+      .lagCheckInterval(Duration.ofMinutes(1))
+      .build();
+    Function<PostgresClient, Future<String>> failingOnReplica = client -> client == replica
+      ? Future.failedFuture(new ConnectException("Connection refused"))
+      : whoAnswers.apply(client);
+
+    assertThat(policy.read(failingOnReplica).result(), is("primary"));
+    // the replica is not used until the next lag check
+    assertThat(policy.read(whoAnswers).result(), is("primary"));
+  }
+
+  @Test
+  void doesNotRepeatQueryErrorsOnPrimary() {
+    replicaLagSeconds(0);
+    ReadRoutingPolicy policy = ReadRoutingPolicy.builder(primary, replica).build();
+
+    Future<String> result = policy.read(client -> client == replica
+      ? Future.failedFuture(new IllegalArgumentException("syntax error"))
+      : whoAnswers.apply(client));
+
+    assertThat(result.cause(), instanceOf(IllegalArgumentException.class));
+  }
+
+  private void replicaLagSeconds(double seconds) {
+    Row row = mock(Row.class);
+    when(row.getValue(0)).thenReturn(seconds);
+    when(replica.select(eq(ReadRoutingPolicy.LAG_SQL), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(row))));
+  }
+}
@@ -0,0 +1,98 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.vertx.sqlclient.Row;
+import org.junit.jupiter.api.Test;
+import org.mockito.Answers;
+
+import org.folio.rest.persist.helpers.LocalRowSet;
+
+class RowMapperTest {
+
+  private static final UUID ID_1 = UUID.randomUUID();
+  private static final UUID ID_2 = UUID.randomUUID();
+
+  @Test
+  void mapsRowsToRecords() {
+    RowMapper<Item> mapper = RowMapper.builder(Item.class).columns("id", "barcode", "copy_number").build();
+
+    List<Item> items = RowSetUtils.mapItems(rowSet(), mapper);
+
+    assertThat(items, contains(new Item(ID_1, "b1", 1), new Item(ID_2, null, 2)));
+  }
+
+  @Test
+  void mapsRowsToBeans() {
+    RowMapper<ItemBean> mapper = RowMapper.builder(ItemBean.class).columns("copy_number", "barcode").build();
+
+    List<ItemBean> items = mapper.mapAll(rowSet());
+
+    assertThat(items.get(0).copyNumber, is(1));
+    assertThat(items.get(0).barcode, is("b1"));
+    assertThat(items.get(1).barcode, is(nullValue()));
+  }
+
+  @Test
+  void failsWhenColumnIsMissing() {
+    RowMapper<ItemBean> mapper = RowMapper.builder(ItemBean.class).columns("status").build();
+    LocalRowSet rowSet = rowSet();
+
+    assertThrows(IllegalArgumentException.class, () -> mapper.mapAll(rowSet));
+  }
+
+  @Test
+  void failsWhenColumnsDoNotMatchRecord() {
+    RowMapper.Builder<Item> builder = RowMapper.builder(Item.class).columns("id", "barcode");
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  @Test
+  void failsWhenBeanHasNoSetter() {
+    RowMapper.Builder<ItemBean> builder = RowMapper.builder(ItemBean.class).columns("status");
+
+    assertThrows(IllegalArgumentException.class, builder::build);
+  }
+
+  private static LocalRowSet rowSet() {
+    return new LocalRowSet(2)
+      .withRows(List.of(row(ID_1, "b1", 1), row(ID_2, null, 2)))
+      .withColumns(List.of("barcode", "id", "copy_number"));
+  }
+
+  private static Row row(UUID id, String barcode, int copyNumber) {
+    Row row = mock(Row.class, withSettings().defaultAnswer(Answers.CALLS_REAL_METHODS));
+    doReturn(barcode).when(row).getValue(0);
+    doReturn(id).when(row).getValue(1);
+    doReturn(copyNumber).when(row).getValue(2);
+    return row;
+  }
+
+  record Item(UUID id, String barcode, int copyNumber) {
+  }
+
+  static class ItemBean {
+
+    private String barcode;
+    private Integer copyNumber;
+
+    public void setBarcode(String barcode) {
+      this.barcode = barcode;
+    }
+
+    public void setCopyNumber(Integer copyNumber) {
+      this.copyNumber = copyNumber;
+    }
+  }
+}
@@ -0,0 +1,168 @@
+package org.folio.db;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.RowStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class RowMappingStreamTest {
+
+  private RowStream<Row> rows;
+  private Promise<Void> done;
+  private ArgumentCaptor<Handler<Row>> rowHandler;
+  private ArgumentCaptor<Handler<Void>> endHandler;
+  private ArgumentCaptor<Handler<Throwable>> exceptionHandler;
+
+  @BeforeEach
+  @SuppressWarnings("unchecked")
+  void setUp() {
+    rows = mock(RowStream.class);
+    done = Promise.promise();
+    rowHandler = ArgumentCaptor.forClass(Handler.class);
+    endHandler = ArgumentCaptor.forClass(Handler.class);
+    exceptionHandler = ArgumentCaptor.forClass(Handler.class);
+    when(rows.handler(rowHandler.capture())).thenReturn(rows);
+    when(rows.endHandler(endHandler.capture())).thenReturn(rows);
+    when(rows.exceptionHandler(exceptionHandler.capture())).thenReturn(rows);
+  }
+
+  @Test
+  void mapsRowsWhenDeliveredAndCompletesOnEnd() {
+    AtomicInteger mapped = new AtomicInteger();
+    List<String> items = new ArrayList<>();
+    AtomicInteger ended = new AtomicInteger();
+
+    new RowMappingStream<>(rows, row -> "item" + mapped.incrementAndGet(), done)
+      .endHandler(v -> ended.incrementAndGet())
+      .handler(items::add);
+
+    assertThat(mapped.get(), is(0));
+    rowHandler.getValue().handle(mock(Row.class));
+    rowHandler.getValue().handle(mock(Row.class));
+    endHandler.getValue().handle(null);
+
+    assertThat(items, contains("item1", "item2"));
+    assertThat(ended.get(), is(1));
+    assertThat(done.future().succeeded(), is(true));
+  }
+
+  @Test
+  void passesBackpressureToRowStream() {
+    RowMappingStream<Row> stream = new RowMappingStream<>(rows, row -> row, done);
+
+    stream.pause();
+    stream.fetch(10);
+    stream.resume();
+
+    verify(rows).pause();
+    verify(rows).fetch(10);
+    verify(rows).resume();
+  }
+
+  @Test
+  void failsAndClosesRowStreamWhenMappingFails() {
+    RuntimeException exception = new IllegalStateException("invalid jsonb");
+    List<Throwable> failures = new ArrayList<>();
+    List<Object> items = new ArrayList<>();
+    when(rows.close()).thenReturn(Future.succeededFuture());
+
+    new RowMappingStream<>(rows, row -> { throw exception; }, done)
+      .exceptionHandler(failures::add)
+      .handler(items::add);
+
+    rowHandler.getValue().handle(mock(Row.class));
+    rowHandler.getValue().handle(mock(Row.class));
+
+    verify(rows, times(1)).close();
+    assertThat(items, is(empty()));
+    assertThat(failures, contains(sameInstance(exception)));
+    assertThat(done.future().cause(), sameInstance(exception));
+  }
+
+  @Test
+  void failsAndClosesRowStreamWhenMappingThrowsError() {
+    AssertionError error = new AssertionError("mapper failed");
+    List<Throwable> failures = new ArrayList<>();
+    when(rows.close()).thenReturn(Future.succeededFuture());
+
+    new RowMappingStream<>(rows, row -> { throw error; }, done)
+      .exceptionHandler(failures::add)
+      .handler(item -> { });
+
+    rowHandler.getValue().handle(mock(Row.class));
+
+    verify(rows).close();
+    assertThat(failures, contains(sameInstance(error)));
+    assertThat(done.future().cause(), sameInstance(error));
+  }
+
+  @Test
+  void failsWhenRowStreamFails() {
+    RuntimeException exception = new IllegalStateException("connection closed");
+    List<Throwable> failures = new ArrayList<>();
+
+    new RowMappingStream<>(rows, row -> row, done)
+      .exceptionHandler(failures::add)
+      .handler(item -> { });
+
+    exceptionHandler.getValue().handle(exception);
+
+    assertThat(failures, contains(sameInstance(exception)));
+    assertThat(done.future().failed(), is(true));
+  }
+
+  @Test
+  void closesRowStreamAndFailsDoneWithoutCallingHandlers() {
+    List<Object> items = new ArrayList<>();
+    List<Throwable> failures = new ArrayList<>();
+    AtomicInteger ended = new AtomicInteger();
+    when(rows.close()).thenReturn(Future.succeededFuture());
+
+    RowMappingStream<Row> stream = new RowMappingStream<>(rows, row -> row, done)
+      .exceptionHandler(failures::add)
+      .endHandler(v -> ended.incrementAndGet())
+      .handler(items::add);
+    rowHandler.getValue().handle(mock(Row.class));
+
+    assertThat(stream.close().succeeded(), is(true));
+    rowHandler.getValue().handle(mock(Row.class));
+
+    verify(rows).close();
+    assertThat(items.size(), is(1));
+    assertThat(failures, is(empty()));
+    assertThat(ended.get(), is(0));
+    assertThat(done.future().cause(), instanceOf(CancellationException.class));
+  }
+
+  @Test
+  void closeAfterEndDoesNothing() {
+    RowMappingStream<Row> stream = new RowMappingStream<>(rows, row -> row, done);
+    endHandler.getValue().handle(null);
+
+    assertThat(stream.close().succeeded(), is(true));
+
+    verify(rows, never()).close();
+    assertThat(done.future().succeeded(), is(true));
+  }
+}
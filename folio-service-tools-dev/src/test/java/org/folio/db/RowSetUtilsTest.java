@@ -3,27 +3,38 @@ package org.folio.db;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.startsWith;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import io.vertx.core.Vertx;
 import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
 import io.vertx.sqlclient.Row;
 import java.time.Instant;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
+import java.util.Spliterator;
 import java.util.UUID;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.folio.rest.persist.helpers.LocalRowSet;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+@ExtendWith(VertxExtension.class)
 class RowSetUtilsTest {
 
   @Test
@@ -40,6 +51,58 @@ class RowSetUtilsTest {
     assertThat(rowList.getFirst().getString("name"), equalTo("test name1"));
   }
 
+  @Test
+  void testSizedStreamOf() {
+    LocalRowSet rowSet = getTestRowSet();
+
+    Stream<Row> actual = RowSetUtils.streamOf(rowSet, true);
+
+    assertTrue(actual.isParallel());
+    assertTrue(actual.spliterator().hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+    assertThat(RowSetUtils.streamOf(rowSet, false).map(row -> row.getInteger("id")).toList(), equalTo(List.of(1, 2)));
+  }
+
+  @Test
+  void testMapItemsParallelKeepsOrder(Vertx vertx, VertxTestContext vtc) {
+    int size = RowSetUtils.PARALLEL_MAPPING_THRESHOLD + 1;
+    List<Row> rows = IntStream.range(0, size).mapToObj(i -> {
+      Row row = mock(Row.class);
+      when(row.getInteger("id")).thenReturn(i);
+      return row;
+    }).toList();
+    LocalRowSet rowSet = new LocalRowSet(size).withRows(rows);
+
+    RowSetUtils.mapItemsParallel(vertx, rowSet, row -> row.getInteger("id"))
+      .onComplete(vtc.succeeding(ids -> vtc.verify(() -> {
+        assertThat(ids, equalTo(IntStream.range(0, size).boxed().toList()));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void testMapItemsParallelOffCommonPool(Vertx vertx, VertxTestContext vtc) {
+    int size = RowSetUtils.PARALLEL_MAPPING_THRESHOLD;
+    LocalRowSet rowSet = new LocalRowSet(size).withRows(Collections.nCopies(size, mock(Row.class)));
+
+    RowSetUtils.mapItemsParallel(vertx, rowSet, row -> Thread.currentThread().getName())
+      .onComplete(vtc.succeeding(threads -> vtc.verify(() -> {
+        assertThat(threads, everyItem(startsWith("folio-row-mapping-")));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void testMapItemsParallelFailsWhenMapperFails(Vertx vertx, VertxTestContext vtc) {
+    int size = RowSetUtils.PARALLEL_MAPPING_THRESHOLD;
+    LocalRowSet rowSet = new LocalRowSet(size).withRows(Collections.nCopies(size, mock(Row.class)));
+
+    RowSetUtils.mapItemsParallel(vertx, rowSet, row -> { throw new IllegalStateException("invalid row"); })
+      .onComplete(vtc.failing(e -> vtc.verify(() -> {
+        assertThat(e, instanceOf(IllegalStateException.class));
+        vtc.completeNow();
+      })));
+  }
+
   @Test
   void testMapRowSet() {
     LocalRowSet rowSet = getTestRowSet();
@@ -108,6 +171,26 @@ class RowSetUtilsTest {
     assertThat(stringUUID, notNullValue());
   }
 
+  @Test
+  void testToUUIDAcceptsNonCanonicalForm() {
+    assertThat(RowSetUtils.toUUID("1-1-1-1-1"), equalTo(UUID.fromString("1-1-1-1-1")));
+    assertThat(RowSetUtils.toUUID(" "), nullValue());
+  }
+
+  @Test
+  void testGetUUIDFromUuidAndTextColumns() {
+    UUID uuid = UUID.randomUUID();
+    Row uuidRow = mock(Row.class);
+    when(uuidRow.getValue("id")).thenReturn(uuid);
+    Row textRow = mock(Row.class);
+    when(textRow.getValue("id")).thenReturn(uuid.toString());
+    Row nullRow = mock(Row.class);
+
+    List<UUID> ids = RowSetUtils.getUUIDs(new LocalRowSet(3).withRows(List.of(uuidRow, textRow, nullRow)), "id");
+
+    assertThat(ids, equalTo(Arrays.asList(uuid, uuid, null)));
+  }
+
   @Test
   void testMapFromNullDate() {
     OffsetDateTime offsetDateTime = RowSetUtils.fromDate(null);
@@ -3,6 +3,14 @@ package org.folio.db.exc;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.nio.channels.ClosedChannelException;
+import java.util.concurrent.CompletionException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import io.vertx.sqlclient.ClosedConnectionException;
+
 import org.folio.test.extensions.TestStartLoggingExtension;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
@@ -69,4 +77,26 @@ class DbExcUtilsTest {
     assertFalse(DbExcUtils.isCheckViolation(PK_EXCEPTION));
   }
 
+  @Test
+  void testTransient() {
+    assertTrue(DbExcUtils.isTransient(new DatabaseException("deadlock", "40P01")));
+    assertTrue(DbExcUtils.isTransient(new CompletionException(new DatabaseException("connection", "08006"))));
+
+    assertFalse(DbExcUtils.isTransient(SOME_EXCEPTION));
+    assertFalse(DbExcUtils.isTransient(UNIQUE_EXCEPTION));
+    assertFalse(DbExcUtils.isTransient(null));
+  }
+
+
+  @Test
+  void testConnectionFailureIsTransient() {
+    assertTrue(DbExcUtils.isTransient(new CompletionException(new ConnectException("Connection refused"))));
+    assertTrue(DbExcUtils.isTransient(ClosedConnectionException.INSTANCE));
+    assertTrue(DbExcUtils.isTransient(new CompletionException(new ClosedChannelException())));
+  }
+
+  @Test
+  void testParseFailureIsNotTransient() {
+    assertFalse(DbExcUtils.isTransient(new UncheckedIOException(new JsonParseException(null, "Unexpected end"))));
+  }
 }
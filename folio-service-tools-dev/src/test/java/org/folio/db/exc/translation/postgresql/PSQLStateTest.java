@@ -176,6 +176,22 @@ class PSQLStateTest {
     assertThat(result, is(true));
   }
 
+  @Test
+  void isTransientForConnectionAndConcurrencyErrors() {
+    assertThat(PSQLState.CONNECTION_FAILURE.isTransient(), is(true));
+    assertThat(PSQLState.SERIALIZATION_FAILURE.isTransient(), is(true));
+    assertThat(PSQLState.DEADLOCK_DETECTED.isTransient(), is(true));
+    assertThat(PSQLState.isTransient("57p03"), is(true));
+  }
+
+  @Test
+  void isTransientReturnsFalseForStatementErrors() {
+    assertThat(PSQLState.UNIQUE_VIOLATION.isTransient(), is(false));
+    assertThat(PSQLState.SYNTAX_ERROR.isTransient(), is(false));
+    assertThat(PSQLState.isTransient("XXXXX"), is(false));
+    assertThat(PSQLState.isTransient(null), is(false));
+  }
+
   private String mixCase(String code) {
     if (StringUtils.isBlank(code)) {
       return code;
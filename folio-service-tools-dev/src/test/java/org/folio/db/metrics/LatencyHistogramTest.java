@@ -0,0 +1,49 @@
+package org.folio.db.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void percentilesOfUniformValues() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long value = 1; value <= 10_000; value++) {
+      histogram.record(value * 1000);
+    }
+
+    assertThat(histogram.getCount(), is(10_000L));
+    assertThat(histogram.getMaxNanos(), is(10_000_000L));
+    assertWithinError(histogram.getValueAtPercentile(50), 5_000_000);
+    assertWithinError(histogram.getValueAtPercentile(99), 9_900_000);
+    assertThat(histogram.getValueAtPercentile(100), is(10_000_000L));
+  }
+
+  @Test
+  void emptyHistogram() {
+    LatencyHistogram histogram = new LatencyHistogram();
+
+    assertThat(histogram.getCount(), is(0L));
+    assertThat(histogram.getValueAtPercentile(99), is(0L));
+  }
+
+  @Test
+  void bucketsCoverAllValues() {
+    for (long value : new long[] {0, 1, 63, 64, 65, 1_000_003, Long.MAX_VALUE}) {
+      int index = LatencyHistogram.index(value);
+      assertThat(LatencyHistogram.highestValue(index), greaterThanOrEqualTo(value));
+      assertThat(index, lessThan((Long.SIZE - LatencyHistogram.SUB_BUCKET_BITS) * LatencyHistogram.SUB_BUCKETS));
+    }
+  }
+
+  private static void assertWithinError(long actual, long expected) {
+    long error = expected / LatencyHistogram.SUB_BUCKETS;
+    assertThat(actual, allOf(greaterThanOrEqualTo(expected), lessThanOrEqualTo(expected + error)));
+  }
+}
@@ -0,0 +1,92 @@
+package org.folio.db.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.sqlclient.Row;
+import io.vertx.sqlclient.Tuple;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import org.folio.db.ParameterizedSql;
+import org.folio.rest.persist.PostgresClient;
+import org.folio.rest.persist.helpers.LocalRowSet;
+
+@ExtendWith(VertxExtension.class)
+class QueryInstrumentationTest {
+
+  private static final ParameterizedSql SQL = ParameterizedSql.of("SELECT jsonb FROM t WHERE name = 'foo' LIMIT 10");
+  private static final String SHAPE = "SELECT jsonb FROM t WHERE name = ? LIMIT ?";
+
+  @Test
+  void recordsLatencyAndRowsPerShape(VertxTestContext vtc) {
+    PostgresClient pg = mock(PostgresClient.class);
+    QueryStats stats = new QueryStats();
+    QueryInstrumentation instrumentation = QueryInstrumentation.builder(stats)
+      .slowQueryThreshold(Duration.ofMinutes(1))
+      .build();
+
+    instrumentation.measure(pg, "t", SQL, () -> Future.succeededFuture(List.of("a", "b")), List::size)
+      .compose(v -> instrumentation.measure(pg, "t", SQL, () -> Future.failedFuture("boom"), List::size))
+      .onComplete(vtc.failing(e -> vtc.verify(() -> {
+        List<QueryStats.ShapeStats> shapes = stats.getShapeStats();
+        assertThat(shapes, hasSize(1));
+        assertThat(shapes.get(0).shape(), is(SHAPE));
+        assertThat(shapes.get(0).count(), is(2L));
+        assertThat(shapes.get(0).failures(), is(1L));
+        assertThat(shapes.get(0).rows(), is(2L));
+        verifyNoInteractions(pg);
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void explainsSlowQuery(VertxTestContext vtc) {
+    PostgresClient pg = mock(PostgresClient.class);
+    JsonArray plan = new JsonArray().add(new JsonObject().put("Plan", new JsonObject().put("Node Type", "Seq Scan")));
+    Row row = mock(Row.class);
+    when(row.getValue(0)).thenReturn(plan);
+    when(pg.select(anyString(), any(Tuple.class)))
+      .thenReturn(Future.succeededFuture(new LocalRowSet(1).withRows(List.of(row))));
+    QueryStats stats = new QueryStats();
+    QueryInstrumentation instrumentation = QueryInstrumentation.builder(stats)
+      .slowQueryThreshold(Duration.ZERO)
+      .explainSampleRate(1)
+      .build();
+
+    instrumentation.measure(pg, "t", SQL, () -> Future.succeededFuture(List.of("a")), List::size)
+      .onComplete(vtc.succeeding(v -> vtc.verify(() -> {
+        verify(pg).select("EXPLAIN (FORMAT JSON) " + SQL.sql(), SQL.params());
+        List<SlowQuery> slowQueries = stats.getSlowQueries();
+        assertThat(slowQueries, hasSize(1));
+        assertThat(slowQueries.get(0).shape(), is(SHAPE));
+        assertThat(slowQueries.get(0).plan(), is(plan));
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void keepsMostRecentSlowQueries() {
+    QueryStats stats = new QueryStats(2);
+    for (int i = 0; i < 3; i++) {
+      stats.recordSlowQuery(new SlowQuery("t", "shape " + i, "sql", i, new JsonArray()));
+    }
+
+    assertThat(stats.getSlowQueries().stream().map(SlowQuery::shape).toList(), is(List.of("shape 1", "shape 2")));
+  }
+}
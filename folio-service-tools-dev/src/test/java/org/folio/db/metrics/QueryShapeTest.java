@@ -0,0 +1,37 @@
+package org.folio.db.metrics;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+class QueryShapeTest {
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+    "SELECT * FROM t WHERE name = 'foo'                | SELECT * FROM t WHERE name = ?",
+    "SELECT * FROM t WHERE jsonb->>'name' = 'foo'      | SELECT * FROM t WHERE jsonb->>'name' = ?",
+    "SELECT * FROM t WHERE id IN ('a', 'b',  'c')      | SELECT * FROM t WHERE id IN (?)",
+    "SELECT * FROM t2 WHERE n > 10 LIMIT 5 OFFSET 0    | SELECT * FROM t2 WHERE n > ? LIMIT ? OFFSET ?",
+    "SELECT * FROM t WHERE a = $1 AND b = $2           | SELECT * FROM t WHERE a = ? AND b = ?",
+    "SELECT * FROM t WHERE \"col 1\" = 'x''y'          | SELECT * FROM t WHERE \"col 1\" = ?",
+    "SELECT * FROM t WHERE id='11111111-1111-1111-1111-111111111111' | SELECT * FROM t WHERE id=?",
+    "SELECT * FROM t WHERE jsonb #>> '{a,b}' LIKE 'x%' | SELECT * FROM t WHERE jsonb #>> '{a,b}' LIKE ?",
+  })
+  void stripsValues(String sql, String shape) {
+    assertThat(QueryShape.of(sql), is(shape));
+  }
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', quoteCharacter = '`', value = {
+    "SELECT * FROM t WHERE name = 'foo' | SELECT * FROM t WHERE name = 'bar'",
+    "SELECT * FROM t LIMIT 10           | SELECT  *  FROM t LIMIT 20",
+    "SELECT * FROM t WHERE id IN ('a')  | SELECT * FROM t WHERE id IN ('a', 'b')",
+    "SELECT * FROM t WHERE id='11111111-1111-1111-1111-111111111111'"
+      + " | SELECT * FROM t WHERE id='22222222-2222-2222-2222-222222222222'",
+  })
+  void sameShapeForDifferentValues(String sql, String other) {
+    assertThat(QueryShape.of(sql), is(QueryShape.of(other)));
+  }
+}
@@ -0,0 +1,158 @@
+package org.folio.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class BatchLoaderTest {
+
+  private final List<List<Integer>> batches = new ArrayList<>();
+
+  @Test
+  void shouldLoadKeysOfOneTickInSingleBatch(Vertx vertx, VertxTestContext vtc) {
+    vertx.runOnContext(v -> {
+      BatchLoader<Integer, String> loader = new BatchLoader<>(vertx, this::loadBatch);
+
+      Future<String> first = loader.load(1);
+      Future<String> second = loader.load(2);
+      Future<String> duplicate = loader.load(1);
+
+      Future.all(first, second, duplicate).onComplete(vtc.succeeding(cf -> vtc.verify(() -> {
+        assertEquals("v1", first.result());
+        assertEquals("v2", second.result());
+        assertEquals("v1", duplicate.result());
+        assertEquals(List.of(List.of(1, 2)), batches);
+        vtc.completeNow();
+      })));
+    });
+  }
+
+  @Test
+  void shouldDispatchWhenMaxBatchSizeReached(Vertx vertx, VertxTestContext vtc) {
+    vertx.runOnContext(v -> {
+      BatchLoader<Integer, String> loader = new BatchLoader<>(vertx, 2, Duration.ofMinutes(1), this::loadBatch);
+
+      loader.loadMany(List.of(1, 2, 3, 4)).onComplete(vtc.succeeding(values -> vtc.verify(() -> {
+        assertEquals(List.of("v1", "v2", "v3", "v4"), values);
+        assertEquals(List.of(List.of(1, 2), List.of(3, 4)), batches);
+        vtc.completeNow();
+      })));
+    });
+  }
+
+  @Test
+  void shouldCacheLoadedKeys(Vertx vertx, VertxTestContext vtc) {
+    vertx.runOnContext(v -> {
+      BatchLoader<Integer, String> loader = new BatchLoader<>(vertx, this::loadBatch);
+
+      loader.load(1)
+        .compose(value -> loader.loadMany(List.of(1, 2)))
+        .onComplete(vtc.succeeding(values -> vtc.verify(() -> {
+          assertEquals(List.of("v1", "v2"), values);
+          assertEquals(List.of(List.of(1), List.of(2)), batches);
+          vtc.completeNow();
+        })));
+    });
+  }
+
+  @Test
+  void shouldLoadMissingKeysAsNull(Vertx vertx, VertxTestContext vtc) {
+    vertx.runOnContext(v -> {
+      BatchLoader<Integer, String> loader = new BatchLoader<>(vertx, keys -> Future.succeededFuture(Map.of()));
+
+      loader.load(1).onComplete(vtc.succeeding(value -> vtc.verify(() -> {
+        assertNull(value);
+        vtc.completeNow();
+      })));
+    });
+  }
+
+  @Test
+  void shouldFailAllKeysOfFailedBatchAndNotCacheThem(Vertx vertx, VertxTestContext vtc) {
+    IllegalStateException failure = new IllegalStateException();
+
+    vertx.runOnContext(v -> {
+      BatchLoader<Integer, String> loader = new BatchLoader<>(vertx, keys -> {
+        if (batches.isEmpty()) {
+          batches.add(keys);
+          return Future.failedFuture(failure);
+        }
+        return loadBatch(keys);
+      });
+
+      Future<String> first = loader.load(1);
+      Future<String> second = loader.load(2);
+
+      Future.join(first, second)
+        .transform(ar -> loader.load(1))
+        .onComplete(vtc.succeeding(value -> vtc.verify(() -> {
+          assertEquals(failure, first.cause());
+          assertEquals(failure, second.cause());
+          assertEquals("v1", value);
+          vtc.completeNow();
+        })));
+    });
+  }
+
+  @Test
+  void shouldFailAndNotCacheKeysWhenBatchFunctionThrowsError(Vertx vertx, VertxTestContext vtc) {
+    AssertionError error = new AssertionError("batch failed");
+
+    vertx.runOnContext(v -> {
+      BatchLoader<Integer, String> loader = new BatchLoader<>(vertx, keys -> {
+        if (batches.isEmpty()) {
+          batches.add(keys);
+          throw error;
+        }
+        return loadBatch(keys);
+      });
+
+      Future<String> first = loader.load(1);
+
+      first
+        .transform(ar -> loader.load(1))
+        .onComplete(vtc.succeeding(value -> vtc.verify(() -> {
+          assertEquals(error, first.cause());
+          assertEquals("v1", value);
+          vtc.completeNow();
+        })));
+    });
+  }
+
+  @Test
+  void shouldFailOffContext(Vertx vertx) {
+    assertThrows(IllegalStateException.class, () -> new BatchLoader<>(vertx, this::loadBatch));
+  }
+
+  @Test
+  void shouldFailWhenUsedFromAnotherContext(Vertx vertx, VertxTestContext vtc) {
+    vertx.runOnContext(v -> {
+      BatchLoader<Integer, String> loader = new BatchLoader<>(vertx, this::loadBatch);
+
+      new Thread(() -> vtc.verify(() -> {
+        assertThrows(IllegalStateException.class, () -> loader.load(1));
+        vtc.completeNow();
+      })).start();
+    });
+  }
+
+  private Future<Map<Integer, String>> loadBatch(List<Integer> keys) {
+    batches.add(keys);
+    return Future.succeededFuture(keys.stream().collect(Collectors.toMap(Function.identity(), key -> "v" + key)));
+  }
+}
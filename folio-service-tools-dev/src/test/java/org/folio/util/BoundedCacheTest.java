@@ -0,0 +1,84 @@
+package org.folio.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+class BoundedCacheTest {
+
+  @Test
+  void evictsLeastRecentlyUsedEntry() {
+    BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+    cache.put("a", 1);
+    cache.put("b", 2);
+    cache.get("a");
+    cache.put("c", 3);
+
+    assertThat(cache.size(), is(2));
+    assertThat(cache.get("a"), is(1));
+    assertThat(cache.get("b"), is(nullValue()));
+    assertThat(cache.get("c"), is(3));
+  }
+
+  @Test
+  void countsHitsAndMisses() {
+    BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+    cache.put("a", 1);
+
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+
+    assertThat(cache.getHits(), is(2L));
+    assertThat(cache.getMisses(), is(1L));
+  }
+
+  @Test
+  void dropsExpiredEntries() throws InterruptedException {
+    BoundedCache<String, Integer> cache = new BoundedCache<>(10, Duration.ofMillis(20));
+    cache.put("a", 1);
+    assertThat(cache.get("a"), is(1));
+
+    Thread.sleep(40);
+
+    assertThat(cache.get("a"), is(nullValue()));
+    assertThat(cache.size(), is(0));
+    assertThat(cache.getMisses(), is(1L));
+  }
+
+  @Test
+  void invalidatesEntries() {
+    BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+    cache.put("a", 1);
+    cache.put("b", 2);
+
+    cache.invalidate("a");
+    assertThat(cache.get("a"), is(nullValue()));
+
+    cache.invalidateAll();
+    assertThat(cache.size(), is(0));
+  }
+
+  @Test
+  void invalidatesMatchingEntries() {
+    BoundedCache<String, Integer> cache = new BoundedCache<>(10);
+    cache.put("a1", 1);
+    cache.put("a2", 2);
+    cache.put("b1", 3);
+
+    cache.invalidateIf(key -> key.startsWith("a"));
+    assertThat(cache.size(), is(1));
+    assertThat(cache.get("b1"), is(3));
+  }
+
+  @Test
+  void rejectsInvalidSize() {
+    assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+    assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(1, Duration.ZERO));
+  }
+}
@@ -0,0 +1,165 @@
+package org.folio.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+@ExtendWith(VertxExtension.class)
+class FutureScopeTest {
+
+  private static final IllegalStateException FAILURE = new IllegalStateException("401 Unauthorized");
+
+  @Test
+  void shouldCompleteWhenAllChildrenSucceed() {
+    try (FutureScope scope = new FutureScope()) {
+      Promise<String> first = Promise.promise();
+      Future<String> firstChild = scope.fork(first::future);
+      CompletableFuture<Integer> secondChild = scope.forkCompletable(() -> CompletableFuture.completedFuture(2));
+
+      Future<Void> join = scope.join();
+      assertFalse(join.isComplete());
+
+      first.complete("one");
+
+      assertTrue(join.succeeded());
+      assertEquals("one", firstChild.result());
+      assertEquals(2, secondChild.getNow(null));
+    }
+  }
+
+  @Test
+  void shouldCancelSiblingsOnFirstFailure() {
+    try (FutureScope scope = new FutureScope()) {
+      Promise<String> vertxSibling = Promise.promise();
+      CompletableFuture<String> completableSibling = new CompletableFuture<>();
+
+      Future<String> vertxChild = scope.fork(vertxSibling::future);
+      CompletableFuture<String> completableChild = scope.forkCompletable(() -> completableSibling);
+      scope.fork(() -> Future.failedFuture(FAILURE));
+
+      Future<Void> join = scope.join();
+
+      assertTrue(scope.isFailed());
+      assertEquals(FAILURE, join.cause());
+      assertInstanceOf(CancellationException.class, vertxChild.cause());
+      assertEquals(FAILURE, vertxChild.cause().getCause());
+      assertTrue(completableChild.isCancelled());
+      assertTrue(completableSibling.isCancelled());
+    }
+  }
+
+  @Test
+  void shouldFailWhenChildThrowsError() {
+    AssertionError error = new AssertionError("task failed");
+    try (FutureScope scope = new FutureScope()) {
+      Future<Object> child = scope.fork(() -> {
+        throw error;
+      });
+
+      assertEquals(error, child.cause());
+      assertEquals(error, scope.join().cause());
+    }
+
+    try (FutureScope scope = new FutureScope()) {
+      CompletableFuture<Object> child = scope.forkCompletable(() -> {
+        throw error;
+      });
+
+      assertFalse(child.isCancelled());
+      assertTrue(child.isCompletedExceptionally());
+      assertEquals(error, scope.join().cause());
+    }
+  }
+
+  @Test
+  void shouldNotStartChildrenAfterFailure() {
+    try (FutureScope scope = new FutureScope()) {
+      AtomicBoolean started = new AtomicBoolean();
+      scope.fork(() -> Future.failedFuture(FAILURE));
+
+      Future<Object> child = scope.fork(() -> {
+        started.set(true);
+        return Future.succeededFuture();
+      });
+
+      assertFalse(started.get());
+      assertInstanceOf(CancellationException.class, child.cause());
+    }
+  }
+
+  @Test
+  void shouldCancelChildrenOnCloseBeforeJoin() {
+    Promise<String> pending = Promise.promise();
+    Future<String> child;
+    FutureScope closed;
+
+    try (FutureScope scope = new FutureScope()) {
+      child = scope.fork(pending::future);
+      closed = scope;
+    }
+
+    assertInstanceOf(CancellationException.class, child.cause());
+    assertInstanceOf(CancellationException.class, closed.join().cause());
+  }
+
+  @Test
+  void shouldCancelChildrenOnCancel() {
+    FutureScope scope = new FutureScope();
+    Future<Object> child = scope.fork(() -> Promise.promise().future());
+    Future<Void> join = scope.join();
+
+    scope.cancel();
+
+    assertInstanceOf(CancellationException.class, child.cause());
+    assertInstanceOf(CancellationException.class, join.cause());
+  }
+
+  @Test
+  void shouldCompleteJoinedScopeAfterClose(Vertx vertx, VertxTestContext vtc) {
+    Promise<String> user = Promise.promise();
+    Promise<Integer> item = Promise.promise();
+
+    // the example of the class documentation
+    Future<String> loan;
+    try (FutureScope scope = new FutureScope(vertx, Duration.ofSeconds(5))) {
+      Future<String> userChild = scope.fork(user::future);
+      Future<Integer> itemChild = scope.fork(item::future);
+      loan = scope.join().map(v -> userChild.result() + ":" + itemChild.result());
+    }
+
+    user.complete("user");
+    item.complete(42);
+
+    loan.onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+      assertEquals("user:42", result);
+      vtc.completeNow();
+    })));
+  }
+
+  @Test
+  void shouldFailOnDeadline(Vertx vertx, VertxTestContext vtc) {
+    FutureScope scope = new FutureScope(vertx, Duration.ofMillis(50));
+    Future<Object> child = scope.fork(() -> Promise.promise().future());
+
+    scope.join().onComplete(vtc.failing(cause -> vtc.verify(() -> {
+      assertInstanceOf(TimeoutException.class, cause);
+      assertInstanceOf(CancellationException.class, child.cause());
+      vtc.completeNow();
+    })));
+  }
+}
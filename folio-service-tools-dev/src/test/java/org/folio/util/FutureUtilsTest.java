@@ -3,15 +3,34 @@ package org.folio.util;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
 
+import io.vertx.core.Context;
 import io.vertx.core.Future;
 import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.junit5.VertxExtension;
+import io.vertx.junit5.VertxTestContext;
+import org.apache.logging.log4j.ThreadContext;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 
+import org.folio.config.ConfigurationException;
+import org.folio.db.exc.DatabaseException;
+
+@ExtendWith(VertxExtension.class)
 class FutureUtilsTest {
 
   private static final String RESULT_VALUE = "Completed";
@@ -72,4 +91,578 @@ class FutureUtilsTest {
     CompletableFuture<Object> completableFuture = FutureUtils.mapVertxFuture(vertxFuture);
     assertFalse(completableFuture.isDone());
   }
+
+  @Test
+  void shouldCompleteVertxFutureOnCallerContextWhenCompletedOnOtherThread(Vertx vertx, VertxTestContext vtc) {
+    Context context = vertx.getOrCreateContext();
+
+    context.runOnContext(v -> {
+      ThreadContext.put("requestId", "123");
+      CompletableFuture<String> completableFuture = new CompletableFuture<>();
+      FutureUtils.mapCompletableFuture(completableFuture)
+        .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+          assertEquals(RESULT_VALUE, result);
+          assertEquals(context, Vertx.currentContext());
+          assertEquals("123", ThreadContext.get("requestId"));
+          vtc.completeNow();
+        })));
+      ThreadContext.remove("requestId");
+
+      CompletableFuture.runAsync(() -> completableFuture.complete(RESULT_VALUE));
+    });
+  }
+
+  @Test
+  void shouldCompleteVertxFutureWithoutDispatchWhenCompletedOnCallerContext(Vertx vertx, VertxTestContext vtc) {
+    vertx.getOrCreateContext().runOnContext(v -> vtc.verify(() -> {
+      CompletableFuture<String> completableFuture = new CompletableFuture<>();
+      Future<String> vertxFuture = FutureUtils.mapCompletableFuture(completableFuture);
+
+      completableFuture.complete(RESULT_VALUE);
+
+      assertTrue(vertxFuture.succeeded());
+      vtc.completeNow();
+    }));
+  }
+
+  @Test
+  void shouldCompleteCompletableFutureWithCallerThreadContext() throws Exception {
+    Promise<String> promise = Promise.promise();
+    ThreadContext.put("requestId", "123");
+    CompletableFuture<String> completableFuture = FutureUtils.mapVertxFuture(promise.future())
+      .thenApply(result -> result + ":" + ThreadContext.get("requestId"));
+    ThreadContext.remove("requestId");
+
+    CompletableFuture.runAsync(() -> promise.complete(RESULT_VALUE)).get();
+
+    assertEquals(RESULT_VALUE + ":123", completableFuture.get(1, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldTraverseWithBoundedConcurrencyAndKeepOrder() {
+    List<Promise<Integer>> promises = new ArrayList<>();
+    AtomicInteger inFlight = new AtomicInteger();
+    AtomicInteger maxObserved = new AtomicInteger();
+
+    Future<List<Integer>> result = FutureUtils.traverse(List.of(1, 2, 3, 4, 5), i -> {
+      maxObserved.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+      Promise<Integer> promise = Promise.promise();
+      promises.add(promise);
+      return promise.future().onComplete(ar -> inFlight.decrementAndGet()).map(v -> v * 10);
+    }, 2);
+
+    assertEquals(2, promises.size());
+    promises.get(1).complete(2);
+    promises.get(0).complete(1);
+    promises.get(3).complete(4);
+    promises.get(2).complete(3);
+    promises.get(4).complete(5);
+
+    assertTrue(result.succeeded());
+    assertEquals(List.of(10, 20, 30, 40, 50), result.result());
+    assertEquals(2, maxObserved.get());
+  }
+
+  @Test
+  void shouldFailTraverseOnFirstFailureAndStopLaunching() {
+    AtomicInteger launched = new AtomicInteger();
+
+    Future<List<Integer>> result = FutureUtils.traverse(List.of(1, 2, 3, 4), i -> {
+      launched.incrementAndGet();
+      return i == 2 ? Future.failedFuture(EXCEPTION_VALUE) : Future.succeededFuture(i);
+    }, 1);
+
+    assertTrue(result.failed());
+    assertEquals(EXCEPTION_VALUE, result.cause());
+    assertEquals(2, launched.get());
+  }
+
+  @Test
+  void shouldCollectSucceededOnTraverse() {
+    List<Throwable> failures = new ArrayList<>();
+
+    Future<List<Integer>> result = FutureUtils.traverseSucceeded(List.of(1, 2, 3, 4),
+      i -> i % 2 == 0 ? Future.failedFuture(EXCEPTION_VALUE) : Future.succeededFuture(i), 3, failures::add);
+
+    assertEquals(List.of(1, 3), result.result());
+    assertEquals(List.of(EXCEPTION_VALUE, EXCEPTION_VALUE), failures);
+  }
+
+  @Test
+  void shouldContinueTraverseWhenMapperThrowsError() {
+    AssertionError error = new AssertionError("mapper failed");
+    List<Throwable> failures = new ArrayList<>();
+
+    Future<List<Integer>> result = FutureUtils.traverseSucceeded(List.of(1, 2, 3), i -> {
+      if (i == 2) {
+        throw error;
+      }
+      return Future.succeededFuture(i);
+    }, 1, failures::add);
+
+    assertEquals(List.of(1, 3), result.result());
+    assertEquals(List.of(error), failures);
+  }
+
+  @Test
+  void shouldNotOverflowStackOnTraverseOfCompletedFutures() {
+    List<Integer> items = IntStream.range(0, 100_000).boxed().toList();
+
+    Future<List<Integer>> result = FutureUtils.traverse(items, Future::succeededFuture, 4);
+
+    assertEquals(items, result.result());
+  }
+
+  @Test
+  void shouldCompleteTraverseOfEmptyCollection() {
+    Future<List<Object>> result = FutureUtils.traverse(List.of(), Future::succeededFuture, 1);
+
+    assertEquals(List.of(), result.result());
+  }
+
+  @Test
+  void shouldTraverseCompletableWithBoundedConcurrency() {
+    List<CompletableFuture<String>> futures = new ArrayList<>();
+
+    CompletableFuture<List<String>> result = FutureUtils.traverseCompletable(List.of("a", "b", "c"), s -> {
+      CompletableFuture<String> future = new CompletableFuture<>();
+      futures.add(future);
+      return future.thenApply(String::toUpperCase);
+    }, 2);
+
+    assertEquals(2, futures.size());
+    futures.get(0).complete("a");
+    assertEquals(3, futures.size());
+    futures.get(2).complete("c");
+    futures.get(1).complete("b");
+
+    assertEquals(List.of("A", "B", "C"), result.getNow(null));
+  }
+
+  @Test
+  void shouldCollectSucceededOnTraverseCompletable() {
+    List<Throwable> failures = new ArrayList<>();
+
+    CompletableFuture<List<Integer>> result = FutureUtils.traverseCompletableSucceeded(List.of(1, 2, 3),
+      i -> i == 2 ? FutureUtils.failedFuture(EXCEPTION_VALUE) : CompletableFuture.completedFuture(i), 2,
+      failures::add);
+
+    assertEquals(List.of(1, 3), result.getNow(null));
+    assertEquals(List.of(EXCEPTION_VALUE), failures);
+  }
+
+  @Test
+  void shouldCollectAllOfSucceeded() {
+    List<Throwable> failures = new ArrayList<>();
+    CompletableFuture<String> first = new CompletableFuture<>();
+    CompletableFuture<String> second = new CompletableFuture<>();
+    CompletableFuture<String> third = new CompletableFuture<>();
+
+    CompletableFuture<List<String>> result = FutureUtils.allOfSucceeded(List.of(first, second, third), failures::add);
+
+    third.complete("c");
+    second.completeExceptionally(EXCEPTION_VALUE);
+    assertFalse(result.isDone());
+    first.complete("a");
+
+    assertEquals(List.of("a", "c"), result.getNow(null));
+    assertEquals(List.of(EXCEPTION_VALUE), failures);
+  }
+
+  @Test
+  void shouldCompleteAllOfSucceededWhenExceptionHandlerThrows() {
+    CompletableFuture<String> first = new CompletableFuture<>();
+    CompletableFuture<String> second = new CompletableFuture<>();
+
+    CompletableFuture<List<String>> result = FutureUtils.allOfSucceeded(List.of(first, second), failure -> {
+      throw new IllegalStateException("handler failed");
+    });
+
+    first.completeExceptionally(EXCEPTION_VALUE);
+    second.complete("b");
+
+    assertEquals(List.of("b"), result.getNow(null));
+  }
+
+  @Test
+  void shouldCompleteAllOfSucceededForEmptyCollection() {
+    CompletableFuture<List<Object>> result = FutureUtils.allOfSucceeded(List.of(), failure -> { });
+
+    assertEquals(List.of(), result.getNow(null));
+  }
+
+  @Test
+  void shouldReturnSucceededSoFarOnDeadline() throws Exception {
+    CompletableFuture<String> fast = CompletableFuture.completedFuture("fast");
+    CompletableFuture<String> slow = new CompletableFuture<>();
+
+    List<String> result = FutureUtils.allOfSucceeded(List.of(slow, fast), Duration.ofMillis(50), failure -> { })
+      .get(5, TimeUnit.SECONDS);
+
+    assertEquals(List.of("fast"), result);
+  }
+
+  @Test
+  void shouldCompleteOnFirstSucceeded() {
+    CompletableFuture<String> first = new CompletableFuture<>();
+    CompletableFuture<String> second = new CompletableFuture<>();
+    CompletableFuture<String> third = new CompletableFuture<>();
+
+    CompletableFuture<List<String>> result = FutureUtils.firstSucceeded(List.of(first, second, third), 2,
+      failure -> { });
+
+    third.complete("c");
+    assertFalse(result.isDone());
+    first.complete("a");
+
+    assertEquals(List.of("a", "c"), result.getNow(null));
+  }
+
+  @Test
+  void shouldCompleteFirstSucceededWhenNotEnoughSuccesses() {
+    CompletableFuture<List<String>> result = FutureUtils.firstSucceeded(
+      List.of(CompletableFuture.completedFuture("a"), FutureUtils.failedFuture(EXCEPTION_VALUE)), 2, failure -> { });
+
+    assertEquals(List.of("a"), result.getNow(null));
+  }
+
+  @Test
+  void shouldCompleteWhenQuorumReached() {
+    CompletableFuture<String> pending = new CompletableFuture<>();
+
+    CompletableFuture<List<String>> result = FutureUtils.quorumOfSucceeded(
+      List.of(CompletableFuture.completedFuture("a"), pending, CompletableFuture.completedFuture("c")), 2,
+      Duration.ofMinutes(1), failure -> { });
+
+    assertEquals(List.of("a", "c"), result.getNow(null));
+  }
+
+  @Test
+  void shouldFailWhenQuorumNotReachable() {
+    CompletableFuture<List<String>> result = FutureUtils.quorumOfSucceeded(
+      List.of(CompletableFuture.completedFuture("a"), FutureUtils.failedFuture(EXCEPTION_VALUE),
+        new CompletableFuture<>()), 3, Duration.ofMinutes(1), failure -> { });
+
+    ExecutionException exception = assertThrows(ExecutionException.class, result::get);
+    assertInstanceOf(IllegalStateException.class, exception.getCause());
+    assertEquals(EXCEPTION_VALUE, exception.getCause().getCause());
+  }
+
+  @Test
+  void shouldFailWhenQuorumNotReachedWithinDeadline() {
+    CompletableFuture<List<String>> result = FutureUtils.quorumOfSucceeded(
+      List.of(CompletableFuture.completedFuture("a"), new CompletableFuture<>()), 2, Duration.ofMillis(50),
+      failure -> { });
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertInstanceOf(TimeoutException.class, exception.getCause());
+  }
+
+  @Test
+  void shouldRetryUntilSucceeded(Vertx vertx, VertxTestContext vtc) {
+    AtomicInteger attempts = new AtomicInteger();
+    RetryPolicy policy = RetryPolicy.builder().maxAttempts(3).initialDelay(Duration.ofMillis(1)).build();
+
+    FutureUtils.retry(vertx, () -> attempts.incrementAndGet() < 3
+        ? Future.failedFuture(EXCEPTION_VALUE)
+        : Future.succeededFuture(RESULT_VALUE), policy)
+      .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+        assertEquals(RESULT_VALUE, result);
+        assertEquals(3, attempts.get());
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void shouldFailWithLastCauseWhenAttemptsExhausted(Vertx vertx, VertxTestContext vtc) {
+    AtomicInteger attempts = new AtomicInteger();
+    RetryPolicy policy = RetryPolicy.builder().maxAttempts(2).initialDelay(Duration.ofMillis(1)).build();
+
+    FutureUtils.retry(vertx, () -> {
+        attempts.incrementAndGet();
+        return Future.failedFuture(EXCEPTION_VALUE);
+      }, policy)
+      .onComplete(vtc.failing(cause -> vtc.verify(() -> {
+        assertEquals(EXCEPTION_VALUE, cause);
+        assertEquals(2, attempts.get());
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void shouldRetryOnlyTransientDbErrors(Vertx vertx, VertxTestContext vtc) {
+    AtomicInteger attempts = new AtomicInteger();
+    DatabaseException uniqueViolation = new DatabaseException("duplicate", "23505");
+
+    FutureUtils.retry(vertx, () -> attempts.incrementAndGet() == 1
+        ? Future.failedFuture(new DatabaseException("deadlock", "40P01"))
+        : Future.failedFuture(uniqueViolation), RetryPolicy.transientDbErrors())
+      .onComplete(vtc.failing(cause -> vtc.verify(() -> {
+        assertEquals(uniqueViolation, cause);
+        assertEquals(2, attempts.get());
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void shouldStopRetryWhenMaxElapsedTimeExceeded(Vertx vertx, VertxTestContext vtc) {
+    AtomicInteger attempts = new AtomicInteger();
+    RetryPolicy policy = RetryPolicy.builder()
+      .maxAttempts(10)
+      .initialDelay(Duration.ofMinutes(1))
+      .maxElapsedTime(Duration.ofSeconds(1))
+      .build();
+
+    FutureUtils.retry(vertx, () -> {
+        attempts.incrementAndGet();
+        return Future.failedFuture(EXCEPTION_VALUE);
+      }, policy)
+      .onComplete(vtc.failing(cause -> vtc.verify(() -> {
+        assertEquals(1, attempts.get());
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void shouldRequireContextForRetryWithoutVertx() {
+    RetryPolicy policy = RetryPolicy.builder().build();
+
+    assertThrows(IllegalStateException.class, () -> FutureUtils.retry(() -> Future.succeededFuture(), policy));
+  }
+
+  @Test
+  void shouldWrapExceptionWithWrapperClass() {
+    Future<Object> result = FutureUtils.wrapExceptions(Future.failedFuture(EXCEPTION_VALUE), DatabaseException.class);
+
+    assertInstanceOf(DatabaseException.class, result.cause());
+    assertEquals(EXCEPTION_VALUE, result.cause().getCause());
+  }
+
+  @Test
+  void shouldNotWrapExceptionOfWrapperClass() {
+    DatabaseException exception = new DatabaseException("failure");
+
+    Future<Object> result = FutureUtils.wrapExceptions(Future.failedFuture(exception), DatabaseException.class);
+
+    assertEquals(exception, result.cause());
+  }
+
+  @Test
+  void shouldWrapExceptionWithMatchingConstructor() {
+    Future<Object> result = FutureUtils.wrapExceptions(Future.failedFuture(EXCEPTION_VALUE),
+      SpecificWrapperException.class);
+
+    assertInstanceOf(SpecificWrapperException.class, result.cause());
+    assertEquals("specific", result.cause().getMessage());
+  }
+
+  @Test
+  void shouldFailWithReflectionErrorWhenNoSuitableConstructor() {
+    Future<Object> result = FutureUtils.wrapExceptions(Future.failedFuture(EXCEPTION_VALUE), NoCauseException.class);
+
+    assertInstanceOf(NoSuchMethodException.class, result.cause());
+  }
+
+  @Test
+  void shouldWrapExceptionWithFunction() {
+    Future<Object> result = FutureUtils.wrapExceptions(Future.failedFuture(EXCEPTION_VALUE),
+      cause -> new ConfigurationException("wrapped", cause));
+
+    assertInstanceOf(ConfigurationException.class, result.cause());
+    assertEquals(EXCEPTION_VALUE, result.cause().getCause());
+  }
+
+  @Test
+  void shouldPassResultThroughOnWrapExceptions() {
+    Future<String> result = FutureUtils.wrapExceptions(Future.succeededFuture(RESULT_VALUE),
+      ConfigurationException.class);
+
+    assertEquals(RESULT_VALUE, result.result());
+  }
+
+  public static class SpecificWrapperException extends RuntimeException {
+
+    public SpecificWrapperException(Throwable cause) {
+      super("generic", cause);
+    }
+
+    public SpecificWrapperException(IllegalArgumentException cause) {
+      super("specific", cause);
+    }
+  }
+
+  public static class NoCauseException extends RuntimeException {
+
+    public NoCauseException() {
+      super();
+    }
+  }
+
+  @Test
+  void shouldExecuteOnVirtualThreadAndCompleteOnCallerContext(Vertx vertx, VertxTestContext vtc) {
+    Context context = vertx.getOrCreateContext();
+
+    context.runOnContext(v -> {
+      ThreadContext.put("requestId", "123");
+      FutureUtils.executeOnVirtualThread(
+          () -> Thread.currentThread().isVirtual() + ":" + ThreadContext.get("requestId"))
+        .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+          assertEquals("true:123", result);
+          assertEquals(context, Vertx.currentContext());
+          vtc.completeNow();
+        })));
+      ThreadContext.remove("requestId");
+    });
+  }
+
+  @Test
+  void shouldFailOnVirtualThreadWhenTaskThrows() throws Exception {
+    CompletableFuture<Object> result = FutureUtils.mapVertxFuture(FutureUtils.executeOnVirtualThread(() -> {
+      throw EXCEPTION_VALUE;
+    }));
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertEquals(EXCEPTION_VALUE, exception.getCause());
+  }
+
+  @Test
+  void shouldFailOnVirtualThreadWhenTaskThrowsError() throws Exception {
+    AssertionError error = new AssertionError("task failed");
+    CompletableFuture<Object> result = FutureUtils.mapVertxFuture(FutureUtils.executeOnVirtualThread(() -> {
+      throw error;
+    }));
+
+    ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+    assertEquals(error, exception.getCause());
+  }
+
+  @Test
+  void shouldAwaitFutureOnVirtualThread() throws Exception {
+    Promise<String> promise = Promise.promise();
+    CompletableFuture<String> awaited = new CompletableFuture<>();
+
+    Thread.ofVirtual().start(() -> awaited.complete(FutureUtils.await(promise.future())));
+    promise.complete(RESULT_VALUE);
+
+    assertEquals(RESULT_VALUE, awaited.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldKeepThreadContextOfCallerOnAwait() throws Exception {
+    Promise<String> promise = Promise.promise();
+    CompletableFuture<String> awaited = new CompletableFuture<>();
+
+    Thread.ofVirtual().start(() -> {
+      ThreadContext.put("requestId", "123");
+      String result = FutureUtils.await(promise.future().onComplete(ar -> ThreadContext.put("requestId", "456")));
+      awaited.complete(result + ":" + ThreadContext.get("requestId"));
+    });
+    Thread.ofVirtual().start(() -> {
+      ThreadContext.put("requestId", "456");
+      promise.complete(RESULT_VALUE);
+    }).join();
+
+    assertEquals(RESULT_VALUE + ":123", awaited.get(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void shouldRethrowFailureOnAwait() {
+    Future<Object> failed = Future.failedFuture(EXCEPTION_VALUE);
+
+    assertEquals(EXCEPTION_VALUE, assertThrows(IllegalArgumentException.class, () -> FutureUtils.await(failed)));
+  }
+
+  @Test
+  void shouldNotAwaitOnEventLoop(Vertx vertx, VertxTestContext vtc) {
+    vertx.runOnContext(v -> vtc.verify(() -> {
+      assertThrows(IllegalStateException.class, () -> FutureUtils.await(Future.succeededFuture()));
+      vtc.completeNow();
+    }));
+  }
+
+  @Test
+  void shouldFoldLeftWithoutGrowingStack() {
+    List<Integer> items = IntStream.rangeClosed(1, 100_000).boxed().toList();
+
+    Future<Long> result = FutureUtils.foldLeft(items, 0L, (sum, item) -> Future.succeededFuture(sum + item));
+
+    assertEquals(5_000_050_000L, result.result());
+  }
+
+  @Test
+  void shouldFoldLeftOverAsyncSteps(Vertx vertx, VertxTestContext vtc) {
+    FutureUtils.foldLeft(List.of("a", "b", "c"), "", (acc, item) -> {
+        Promise<String> promise = Promise.promise();
+        vertx.setTimer(1, id -> promise.complete(acc + item));
+        return promise.future();
+      })
+      .onComplete(vtc.succeeding(result -> vtc.verify(() -> {
+        assertEquals("abc", result);
+        vtc.completeNow();
+      })));
+  }
+
+  @Test
+  void shouldStopFoldLeftOnFailure() {
+    AtomicInteger steps = new AtomicInteger();
+
+    Future<Integer> result = FutureUtils.foldLeft(List.of(1, 2, 3), 0, (acc, item) -> {
+      steps.incrementAndGet();
+      return item == 2 ? Future.failedFuture(EXCEPTION_VALUE) : Future.succeededFuture(acc + item);
+    });
+
+    assertEquals(EXCEPTION_VALUE, result.cause());
+    assertEquals(2, steps.get());
+  }
+
+  @Test
+  void shouldFailFoldLeftWhenStepThrowsError() {
+    AssertionError error = new AssertionError("step failed");
+
+    Future<Integer> result = FutureUtils.foldLeft(List.of(1, 2), 0, (acc, item) -> {
+      throw error;
+    });
+
+    assertEquals(error, result.cause());
+  }
+
+  @Test
+  void shouldProcessItemsSequentially() {
+    List<Integer> processed = new ArrayList<>();
+    List<Promise<Void>> promises = new ArrayList<>();
+
+    Future<Void> result = FutureUtils.forEachSequential(List.of(1, 2, 3), item -> {
+      processed.add(item);
+      Promise<Void> promise = Promise.promise();
+      promises.add(promise);
+      return promise.future();
+    });
+
+    assertEquals(List.of(1), processed);
+    promises.get(0).complete();
+    assertEquals(List.of(1, 2), processed);
+    promises.get(1).complete();
+    promises.get(2).complete();
+
+    assertTrue(result.succeeded());
+    assertEquals(List.of(1, 2, 3), processed);
+  }
+
+  @Test
+  void shouldRepeatWhileConditionHolds() {
+    AtomicInteger counter = new AtomicInteger();
+
+    Future<Void> result = FutureUtils.whileAsync(() -> counter.get() < 100_000,
+      () -> Future.succeededFuture(counter.incrementAndGet()));
+
+    assertTrue(result.succeeded());
+    assertEquals(100_000, counter.get());
+  }
+
+  @Test
+  void shouldFailWhileAsyncWhenBodyFails() {
+    Future<Void> result = FutureUtils.whileAsync(() -> true, () -> Future.failedFuture(EXCEPTION_VALUE));
+
+    assertEquals(EXCEPTION_VALUE, result.cause());
+  }
 }
@@ -0,0 +1,60 @@
+package org.folio.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+import org.folio.db.exc.DatabaseException;
+
+class RetryPolicyTest {
+
+  @Test
+  void shouldGrowDelayExponentiallyUpToMaxDelay() {
+    RetryPolicy policy = RetryPolicy.builder()
+      .initialDelay(Duration.ofMillis(100))
+      .maxDelay(Duration.ofMillis(350))
+      .multiplier(2)
+      .jitter(0)
+      .build();
+
+    assertEquals(100, policy.delayMillis(1));
+    assertEquals(200, policy.delayMillis(2));
+    assertEquals(350, policy.delayMillis(3));
+  }
+
+  @Test
+  void shouldApplyJitterWithinBounds() {
+    RetryPolicy policy = RetryPolicy.builder()
+      .initialDelay(Duration.ofMillis(1000))
+      .jitter(0.5)
+      .build();
+
+    for (int i = 0; i < 100; i++) {
+      long delay = policy.delayMillis(1);
+      assertTrue(delay >= 500 && delay <= 1000, "Unexpected delay: " + delay);
+    }
+  }
+
+  @Test
+  void shouldRetryTransientDbErrorsOnly() {
+    RetryPolicy policy = RetryPolicy.transientDbErrors();
+
+    assertTrue(policy.shouldRetry(new DatabaseException("serialization", "40001")));
+    assertFalse(policy.shouldRetry(new DatabaseException("not null", "23502")));
+    assertFalse(policy.shouldRetry(new IllegalArgumentException()));
+  }
+
+  @Test
+  void shouldRejectInvalidSettings() {
+    RetryPolicy.Builder builder = RetryPolicy.builder();
+
+    assertThrows(IllegalArgumentException.class, () -> builder.maxAttempts(0));
+    assertThrows(IllegalArgumentException.class, () -> builder.multiplier(0.5));
+    assertThrows(IllegalArgumentException.class, () -> builder.jitter(1.5));
+  }
+}
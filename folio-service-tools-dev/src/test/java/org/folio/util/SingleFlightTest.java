@@ -0,0 +1,108 @@
+package org.folio.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import org.junit.jupiter.api.Test;
+
+class SingleFlightTest {
+
+  @Test
+  void shouldShareInFlightOperationForSameKey() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    AtomicInteger started = new AtomicInteger();
+    Promise<String> promise = Promise.promise();
+
+    Future<String> first = singleFlight.execute("key", () -> {
+      started.incrementAndGet();
+      return promise.future();
+    });
+    Future<String> second = singleFlight.execute("key", () -> {
+      started.incrementAndGet();
+      return Future.succeededFuture("other");
+    });
+
+    assertSame(first, second);
+    assertEquals(1, started.get());
+    assertEquals(1, singleFlight.getInFlight());
+
+    promise.complete("value");
+
+    assertEquals("value", second.result());
+    assertEquals(0, singleFlight.getInFlight());
+    assertEquals(2, singleFlight.getCalls());
+    assertEquals(1, singleFlight.getCoalesced());
+  }
+
+  @Test
+  void shouldStartNewOperationAfterCompletion() {
+    SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    AtomicInteger started = new AtomicInteger();
+
+    Future<Integer> first = singleFlight.execute("key", () -> Future.succeededFuture(started.incrementAndGet()));
+    Future<Integer> second = singleFlight.execute("key", () -> Future.succeededFuture(started.incrementAndGet()));
+
+    assertNotSame(first, second);
+    assertEquals(1, first.result());
+    assertEquals(2, second.result());
+    assertEquals(0, singleFlight.getCoalesced());
+  }
+
+  @Test
+  void shouldNotShareOperationsForDifferentKeys() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    Future<String> first = singleFlight.execute("a", () -> Promise.<String>promise().future());
+    Future<String> second = singleFlight.execute("b", () -> Promise.<String>promise().future());
+
+    assertNotSame(first, second);
+    assertEquals(2, singleFlight.getInFlight());
+  }
+
+  @Test
+  void shouldReleaseKeyWhenSupplierThrows() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    Future<String> result = singleFlight.execute("key", () -> {
+      throw new IllegalStateException();
+    });
+
+    assertTrue(result.failed());
+    assertEquals(0, singleFlight.getInFlight());
+  }
+
+  @Test
+  void shouldReleaseKeyWhenSupplierThrowsError() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    AssertionError error = new AssertionError("supplier failed");
+
+    Future<String> result = singleFlight.execute("key", () -> {
+      throw error;
+    });
+
+    assertEquals(error, result.cause());
+    assertEquals(0, singleFlight.getInFlight());
+    assertEquals("value", singleFlight.execute("key", () -> Future.succeededFuture("value")).result());
+  }
+
+  @Test
+  void shouldGiveEachCallerOwnCompletableFuture() {
+    SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    CompletableFuture<String> operation = new CompletableFuture<>();
+
+    CompletableFuture<String> first = singleFlight.executeCompletable("key", () -> operation);
+    CompletableFuture<String> second = singleFlight.executeCompletable("key", CompletableFuture::new);
+    first.complete("cancelled by caller");
+    operation.complete("value");
+
+    assertEquals("value", second.getNow(null));
+    assertEquals(1, singleFlight.getCoalesced());
+  }
+}
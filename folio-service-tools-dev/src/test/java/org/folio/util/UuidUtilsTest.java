@@ -0,0 +1,42 @@
+package org.folio.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class UuidUtilsTest {
+
+  @Test
+  void parsesAndFormatsCanonicalForm() {
+    for (int i = 0; i < 100; i++) {
+      UUID uuid = UUID.randomUUID();
+      assertThat(UuidUtils.parse(uuid.toString()), is(uuid));
+      assertThat(UuidUtils.parse(uuid.toString().toUpperCase()), is(uuid));
+      assertThat(UuidUtils.appendTo(new StringBuilder(), uuid).toString(), is(uuid.toString()));
+    }
+  }
+
+  @Test
+  void parsesAtOffset() {
+    assertThat(UuidUtils.parse("id=ffffffff-ffff-ffff-ffff-ffffffffffff", 3), is(new UUID(-1, -1)));
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {
+    "",
+    "1-1-1-1-1",
+    "00000000-0000-0000-0000-00000000000g",
+    "00000000x0000-0000-0000-000000000000",
+    "00000000-0000-0000-0000-0000000000",
+  })
+  void rejectsNonCanonicalForm(String value) {
+    assertThat(UuidUtils.isValid(value), is(false));
+    assertThrows(IllegalArgumentException.class, () -> UuidUtils.parse(value));
+  }
+}